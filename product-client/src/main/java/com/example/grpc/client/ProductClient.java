@@ -0,0 +1,337 @@
+package com.example.grpc.client;
+
+import com.example.grpc.EmptyRequest;
+import com.example.grpc.ProductRequest;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.RequestById;
+import com.example.grpc.UpdateProductRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.AbstractStub;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Client of {@code ProductService} over a pool of channels, each balancing round-robin over a static address list.
+ * FindById and FindAll are hedged (or retried) by the channel service config; the other methods are sent once.
+ * Every call carries the default deadline unless one is given, and that deadline bounds all of its attempts.
+ *
+ * <pre>{@code
+ * try (var client = ProductClient.newBuilder(List.of("product-1:9090", "product-2:9090"))
+ *         .findByIdCache(10_000, Duration.ofSeconds(5))
+ *         .build()) {
+ *     var product = client.findById(42);
+ * }
+ * }</pre>
+ */
+public final class ProductClient implements AutoCloseable {
+    static {
+        NameResolverRegistry.getDefaultRegistry().register(new StaticAddressNameResolverProvider());
+    }
+
+    private final List<ManagedChannel> channels;
+
+    private final AtomicInteger nextChannel = new AtomicInteger();
+
+    private final Duration defaultDeadline;
+
+    private final Cache<Long, ProductResponse> findByIdCache;
+
+    private ProductClient(Builder builder) {
+        var serviceConfig = ProductServiceConfig.of(builder);
+        var channels = new ArrayList<ManagedChannel>(builder.channels);
+        for (int i = 0; i < builder.channels; i++) {
+            ManagedChannelBuilder<?> channelBuilder = ManagedChannelBuilder
+                    .forTarget(StaticAddressNameResolverProvider.target(builder.addresses))
+                    .defaultServiceConfig(serviceConfig)
+                    .enableRetry()
+                    .maxRetryAttempts(builder.maxAttempts)
+                    .usePlaintext();
+            builder.channelCustomizer.accept(channelBuilder);
+            channels.add(channelBuilder.build());
+        }
+        this.channels = List.copyOf(channels);
+        this.defaultDeadline = builder.defaultDeadline;
+        this.findByIdCache = builder.cacheMaximumSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(builder.cacheMaximumSize)
+                        .expireAfterWrite(builder.cacheExpireAfterWrite)
+                        .build()
+                : null;
+    }
+
+    public static Builder newBuilder(List<String> addresses) {
+        return new Builder(addresses);
+    }
+
+    public ProductResponse create(ProductRequest request) {
+        return this.create(request, this.defaultDeadline);
+    }
+
+    public ProductResponse create(ProductRequest request, Duration deadline) {
+        return this.blockingStub(deadline).create(request);
+    }
+
+    public ProductResponse findById(long id) {
+        return this.findById(id, this.defaultDeadline);
+    }
+
+    /**
+     * Served from the cache when enabled; only found products are cached.
+     */
+    public ProductResponse findById(long id, Duration deadline) {
+        if (this.findByIdCache != null) {
+            var cached = this.findByIdCache.getIfPresent(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        var product = this.blockingStub(deadline).findById(RequestById.newBuilder().setId(id).build());
+        if (this.findByIdCache != null) {
+            this.findByIdCache.put(id, product);
+        }
+        return product;
+    }
+
+    public List<ProductResponse> findAll() {
+        return this.findAll(this.defaultDeadline);
+    }
+
+    public List<ProductResponse> findAll(Duration deadline) {
+        return this.blockingStub(deadline).findAll(EmptyRequest.getDefaultInstance()).getProductsList();
+    }
+
+    public ProductResponse update(UpdateProductRequest request) {
+        return this.update(request, this.defaultDeadline);
+    }
+
+    /**
+     * Caches the updated product; on ABORTED the cached copy is stale and is dropped, so the next FindById reads the
+     * current version to retry from.
+     */
+    public ProductResponse update(UpdateProductRequest request, Duration deadline) {
+        ProductResponse product;
+        try {
+            product = this.blockingStub(deadline).update(request);
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() == Status.Code.ABORTED) {
+                this.invalidate(request.getId());
+            }
+            throw e;
+        }
+        if (this.findByIdCache != null) {
+            this.findByIdCache.put(product.getId(), product);
+        }
+        return product;
+    }
+
+    public void delete(long id) {
+        this.delete(id, this.defaultDeadline);
+    }
+
+    public void delete(long id, Duration deadline) {
+        this.blockingStub(deadline).delete(RequestById.newBuilder().setId(id).build());
+        this.invalidate(id);
+    }
+
+    /**
+     * Drops a cached FindById result, e.g. after the product changed through another client.
+     */
+    public void invalidate(long id) {
+        if (this.findByIdCache != null) {
+            this.findByIdCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Stubs for the remaining methods, on the next pooled channel with the default deadline.
+     */
+    public ProductServiceGrpc.ProductServiceBlockingStub blockingStub() {
+        return this.blockingStub(this.defaultDeadline);
+    }
+
+    public ProductServiceGrpc.ProductServiceFutureStub futureStub() {
+        return withDeadline(ProductServiceGrpc.newFutureStub(this.nextChannel()), this.defaultDeadline);
+    }
+
+    public ProductServiceGrpc.ProductServiceStub asyncStub() {
+        return withDeadline(ProductServiceGrpc.newStub(this.nextChannel()), this.defaultDeadline);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        this.channels.forEach(ManagedChannel::shutdown);
+        for (ManagedChannel channel : this.channels) {
+            if (!channel.awaitTermination(5, TimeUnit.SECONDS)) {
+                channel.shutdownNow();
+            }
+        }
+    }
+
+    private ProductServiceGrpc.ProductServiceBlockingStub blockingStub(Duration deadline) {
+        return withDeadline(ProductServiceGrpc.newBlockingStub(this.nextChannel()), deadline);
+    }
+
+    private ManagedChannel nextChannel() {
+        return this.channels.get(Math.floorMod(this.nextChannel.getAndIncrement(), this.channels.size()));
+    }
+
+    private static <S extends AbstractStub<S>> S withDeadline(S stub, Duration deadline) {
+        return deadline == null ? stub : stub.withDeadlineAfter(deadline.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public static final class Builder {
+        private final List<String> addresses;
+
+        private int channels = 2;
+
+        private Duration defaultDeadline = Duration.ofSeconds(5);
+
+        private boolean hedging = true;
+
+        private int maxAttempts = 3;
+
+        private Duration hedgingDelay = Duration.ofMillis(50);
+
+        private Duration initialBackoff = Duration.ofMillis(50);
+
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        private long cacheMaximumSize;
+
+        private Duration cacheExpireAfterWrite = Duration.ofSeconds(5);
+
+        private Consumer<ManagedChannelBuilder<?>> channelCustomizer = channelBuilder -> {
+        };
+
+        private Builder(List<String> addresses) {
+            if (addresses.isEmpty()) {
+                throw new IllegalArgumentException("Informe ao menos um endereço do serviço de produtos.");
+            }
+            this.addresses = List.copyOf(addresses);
+        }
+
+        /**
+         * Channels in the pool; each keeps one connection per address.
+         */
+        public Builder channels(int channels) {
+            if (channels < 1) {
+                throw new IllegalArgumentException("O pool deve ter ao menos um canal.");
+            }
+            this.channels = channels;
+            return this;
+        }
+
+        /**
+         * Deadline of calls made without one; null sends them without a deadline.
+         */
+        public Builder defaultDeadline(Duration defaultDeadline) {
+            this.defaultDeadline = defaultDeadline;
+            return this;
+        }
+
+        /**
+         * Sends up to {@code maxAttempts} copies of a FindById/FindAll call, one more every {@code hedgingDelay}
+         * until one answers. Set the delay near the p95 latency of the method.
+         */
+        public Builder hedging(int maxAttempts, Duration hedgingDelay) {
+            this.hedging = true;
+            this.maxAttempts = maxAttempts;
+            this.hedgingDelay = Objects.requireNonNull(hedgingDelay);
+            return this;
+        }
+
+        /**
+         * Retries a failed FindById/FindAll call up to {@code maxAttempts} times with exponential backoff instead of
+         * hedging it.
+         */
+        public Builder retry(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+            this.hedging = false;
+            this.maxAttempts = maxAttempts;
+            this.initialBackoff = Objects.requireNonNull(initialBackoff);
+            this.maxBackoff = Objects.requireNonNull(maxBackoff);
+            return this;
+        }
+
+        /**
+         * Caches FindById results; a delete through this client evicts its entry, other changes show up once the
+         * entry expires.
+         */
+        public Builder findByIdCache(long maximumSize, Duration expireAfterWrite) {
+            this.cacheMaximumSize = maximumSize;
+            this.cacheExpireAfterWrite = Objects.requireNonNull(expireAfterWrite);
+            return this;
+        }
+
+        /**
+         * Applied to every channel of the pool after the defaults, e.g. for TLS or interceptors.
+         */
+        public Builder channelCustomizer(Consumer<ManagedChannelBuilder<?>> channelCustomizer) {
+            this.channelCustomizer = Objects.requireNonNull(channelCustomizer);
+            return this;
+        }
+
+        public ProductClient build() {
+            if (this.maxAttempts < 2) {
+                throw new IllegalArgumentException("maxAttempts deve ser ao menos 2.");
+            }
+            return new ProductClient(this);
+        }
+    }
+
+    /**
+     * Channel service config in the gRFC A6 format.
+     */
+    private static final class ProductServiceConfig {
+        private static final List<String> READ_METHODS = List.of(
+                ProductServiceGrpc.getFindByIdMethod().getBareMethodName(),
+                ProductServiceGrpc.getFindAllMethod().getBareMethodName());
+
+        // RESOURCE_EXHAUSTED comes from the server rate limiter with a grpc-retry-pushback-ms trailer
+        private static final List<String> RETRYABLE_CODES = List.of("UNAVAILABLE", "RESOURCE_EXHAUSTED");
+
+        private static Map<String, Object> of(Builder builder) {
+            var names = new ArrayList<Map<String, Object>>();
+            for (String method : READ_METHODS) {
+                names.add(Map.of("service", ProductServiceGrpc.SERVICE_NAME, "method", method));
+            }
+            Map<String, Object> readPolicy = builder.hedging
+                    ? Map.of("hedgingPolicy", Map.of(
+                            "maxAttempts", (double) builder.maxAttempts,
+                            "hedgingDelay", duration(builder.hedgingDelay),
+                            "nonFatalStatusCodes", RETRYABLE_CODES))
+                    : Map.of("retryPolicy", Map.of(
+                            "maxAttempts", (double) builder.maxAttempts,
+                            "initialBackoff", duration(builder.initialBackoff),
+                            "maxBackoff", duration(builder.maxBackoff),
+                            "backoffMultiplier", 2.0,
+                            "retryableStatusCodes", RETRYABLE_CODES));
+            var methodConfig = new HashMap<String, Object>(readPolicy);
+            methodConfig.put("name", names);
+            return Map.of(
+                    "loadBalancingConfig", List.of(Map.of("round_robin", Map.of())),
+                    "methodConfig", List.of(methodConfig),
+                    // stops hedges and retries from piling onto an unhealthy service
+                    "retryThrottling", Map.of("maxTokens", 10.0, "tokenRatio", 0.1));
+        }
+
+        private static String duration(Duration duration) {
+            return String.format(Locale.ROOT, "%d.%09ds", duration.getSeconds(), duration.getNano());
+        }
+    }
+}
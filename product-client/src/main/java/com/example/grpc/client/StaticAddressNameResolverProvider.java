@@ -0,0 +1,90 @@
+package com.example.grpc.client;
+
+import io.grpc.Attributes;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.Status;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves {@code product-static:///host1:9090,host2:9090} to a fixed address list, one subchannel per address for
+ * the round_robin policy.
+ */
+final class StaticAddressNameResolverProvider extends NameResolverProvider {
+    static final String SCHEME = "product-static";
+
+    private static final String AUTHORITY = "product-service";
+
+    static String target(List<String> addresses) {
+        return SCHEME + ":///" + String.join(",", addresses);
+    }
+
+    @Override
+    protected boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    protected int priority() {
+        return 5;
+    }
+
+    @Override
+    public String getDefaultScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+        if (!SCHEME.equals(targetUri.getScheme())) {
+            return null;
+        }
+        var path = targetUri.getPath();
+        return new StaticAddressNameResolver(path.startsWith("/") ? path.substring(1) : path);
+    }
+
+    private static final class StaticAddressNameResolver extends NameResolver {
+        private final String addresses;
+
+        private StaticAddressNameResolver(String addresses) {
+            this.addresses = addresses;
+        }
+
+        @Override
+        public String getServiceAuthority() {
+            return AUTHORITY;
+        }
+
+        @Override
+        public void start(Listener2 listener) {
+            List<EquivalentAddressGroup> groups = new ArrayList<>();
+            try {
+                for (String address : this.addresses.split(",")) {
+                    var separator = address.lastIndexOf(':');
+                    if (separator <= 0) {
+                        throw new IllegalArgumentException("Endereço inválido: " + address);
+                    }
+                    var host = address.substring(0, separator).trim();
+                    var port = Integer.parseInt(address.substring(separator + 1).trim());
+                    groups.add(new EquivalentAddressGroup(new InetSocketAddress(host, port)));
+                }
+            } catch (IllegalArgumentException e) {
+                listener.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).withCause(e));
+                return;
+            }
+            listener.onResult(ResolutionResult.newBuilder()
+                    .setAddresses(groups)
+                    .setAttributes(Attributes.EMPTY)
+                    .build());
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
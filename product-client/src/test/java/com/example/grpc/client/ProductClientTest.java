@@ -0,0 +1,164 @@
+package com.example.grpc.client;
+
+import com.example.grpc.EmptyResponse;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.RequestById;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ProductClientTest {
+
+    private static final int SERVERS = 3;
+
+    private final List<FakeProductService> services = new ArrayList<>();
+
+    private final List<Server> servers = new ArrayList<>();
+
+    private final List<String> addresses = new ArrayList<>();
+
+    @BeforeEach
+    public void init() throws Exception {
+        // loopback servers: the static resolver hands out socket addresses, which in-process channels cannot dial
+        for (int i = 0; i < SERVERS; i++) {
+            var service = new FakeProductService("server-" + i);
+            var server = NettyServerBuilder.forAddress(new InetSocketAddress("127.0.0.1", 0))
+                    .addService(service)
+                    .build()
+                    .start();
+            this.services.add(service);
+            this.servers.add(server);
+            this.addresses.add("127.0.0.1:" + server.getPort());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.servers.forEach(Server::shutdownNow);
+    }
+
+    @Test
+    @DisplayName("FindById calls are balanced round-robin over every server")
+    public void findByIdIsBalancedOverAllServers() throws Exception {
+        try (var client = ProductClient.newBuilder(this.addresses)
+                .channels(2)
+                .retry(2, Duration.ofMillis(50), Duration.ofSeconds(1))
+                .build()) {
+            for (int i = 0; i < 60; i++) {
+                assertThat(client.findById(i + 1).getId()).isEqualTo(i + 1);
+            }
+        }
+
+        assertThat(this.services).allSatisfy(service -> assertThat(service.findByIdCalls.get()).isGreaterThan(0));
+        assertThat(this.services.stream().mapToInt(service -> service.findByIdCalls.get()).sum()).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("when a server stalls, a hedged FindById is answered by another server")
+    public void findByIdIsHedgedAroundASlowServer() throws Exception {
+        this.services.get(0).delayMillis = 2_000;
+        try (var client = ProductClient.newBuilder(this.addresses)
+                .channels(1)
+                .hedging(3, Duration.ofMillis(20))
+                .build()) {
+            for (int i = 0; i < 10; i++) {
+                var start = System.nanoTime();
+                var product = client.findById(i + 1);
+
+                assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_000));
+                assertThat(product.getName()).isNotEqualTo("server-0");
+            }
+        }
+
+        assertThat(this.services.get(0).findByIdCalls.get()).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("a per-call deadline bounds the call and all of its hedges")
+    public void perCallDeadlineIsApplied() throws Exception {
+        this.services.forEach(service -> service.delayMillis = 500);
+        try (var client = ProductClient.newBuilder(this.addresses).build()) {
+            assertThatExceptionOfType(StatusRuntimeException.class)
+                    .isThrownBy(() -> client.findById(1, Duration.ofMillis(100)))
+                    .satisfies(e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.DEADLINE_EXCEEDED));
+        }
+    }
+
+    @Test
+    @DisplayName("FindById results are cached until the product is deleted through the client")
+    public void findByIdIsCachedUntilDeleted() throws Exception {
+        try (var client = ProductClient.newBuilder(this.addresses)
+                .findByIdCache(100, Duration.ofMinutes(1))
+                .build()) {
+            client.findById(7);
+            client.findById(7);
+            assertThat(this.totalFindByIdCalls()).isEqualTo(1);
+
+            client.delete(7);
+            client.findById(7);
+            assertThat(this.totalFindByIdCalls()).isEqualTo(2);
+
+            assertThatExceptionOfType(StatusRuntimeException.class)
+                    .isThrownBy(() -> client.findById(FakeProductService.MISSING_ID));
+            assertThatExceptionOfType(StatusRuntimeException.class)
+                    .isThrownBy(() -> client.findById(FakeProductService.MISSING_ID));
+            assertThat(this.totalFindByIdCalls()).isEqualTo(4);
+        }
+    }
+
+    private int totalFindByIdCalls() {
+        return this.services.stream().mapToInt(service -> service.findByIdCalls.get()).sum();
+    }
+
+    private static final class FakeProductService extends ProductServiceGrpc.ProductServiceImplBase {
+        private static final long MISSING_ID = 404;
+
+        private final String name;
+
+        private final AtomicInteger findByIdCalls = new AtomicInteger();
+
+        private volatile long delayMillis;
+
+        private FakeProductService(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void findById(RequestById request, StreamObserver<ProductResponse> responseObserver) {
+            this.findByIdCalls.incrementAndGet();
+            try {
+                Thread.sleep(this.delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (request.getId() == MISSING_ID) {
+                responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(ProductResponse.newBuilder().setId(request.getId()).setName(this.name).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void delete(RequestById request, StreamObserver<EmptyResponse> responseObserver) {
+            responseObserver.onNext(EmptyResponse.getDefaultInstance());
+            responseObserver.onCompleted();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.EmptyRequest;
+import com.example.grpc.ProductResponseList;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.catalog.CatalogSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FindAll served from the database versus from the catalog snapshot, and the snapshot's full reload. The in-process
+ * transport hands the database path's response object to the client as is, while the snapshot's bytes are parsed
+ * by the client, so the comparison is biased against the snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CatalogSnapshotBenchmark {
+    @Param({"1000", "10000"})
+    private int catalogSize;
+
+    @Param({"false", "true"})
+    private boolean snapshot;
+
+    private InProcessProductServer server;
+
+    private ProductServiceGrpc.ProductServiceBlockingStub stub;
+
+    private CatalogSnapshot catalogSnapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.server = InProcessProductServer.start("product.snapshot.enabled=" + this.snapshot,
+                "grpc.server.outbound.max-message-size=64MB");
+        this.server.seed(this.catalogSize);
+        this.stub = this.server.blockingStub().withMaxInboundMessageSize(64 * 1024 * 1024);
+        if (this.snapshot) {
+            this.catalogSnapshot = this.server.context().getBean(CatalogSnapshot.class);
+            this.catalogSnapshot.reconcile();
+            var meterRegistry = this.server.context().getBean(MeterRegistry.class);
+            var memory = meterRegistry.get("product.snapshot.memory").gauge().value();
+            var serialized = meterRegistry.get("product.snapshot.serialized").gauge().value();
+            System.out.printf("%n%d products: ~%.0f bytes retained (%.1f per product), %.0f bytes serialized%n",
+                    this.catalogSize, memory, memory / this.catalogSize, serialized);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.server.close();
+    }
+
+    @Benchmark
+    public ProductResponseList findAll() {
+        return this.stub.findAll(EmptyRequest.getDefaultInstance());
+    }
+
+    @Benchmark
+    public void reload() {
+        if (this.catalogSnapshot != null) {
+            this.catalogSnapshot.reconcile();
+        }
+    }
+}
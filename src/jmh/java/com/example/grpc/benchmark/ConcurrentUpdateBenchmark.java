@@ -0,0 +1,118 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.dto.ProductUpdateDto;
+import com.example.grpc.repository.ProductUpdateRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 16 writers raising the price of the same few products (read, add one, write): a version-guarded UPDATE retried
+ * from a fresh read on conflict (the Update RPC's path) versus SELECT ... FOR UPDATE holding the row lock from the
+ * read to the commit. Each operation is one successful write; {@code conflicts} counts the optimistic retries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ConcurrentUpdateBenchmark {
+    private static final String READ_SQL = "select price, version from product where id = ?";
+
+    private static final String LOCK_SQL = "select price from product where id = ? for update";
+
+    private static final String WRITE_SQL = "update product set price = ?, version = version + 1 where id = ?";
+
+    @Param({"optimistic", "pessimistic"})
+    private String mode;
+
+    // 1 is a single hot row; more products spread the writers and make conflicts rarer
+    @Param({"1", "64"})
+    private int products;
+
+    private InProcessProductServer server;
+
+    private ProductUpdateRepository productUpdateRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // queued FOR UPDATE readers must outlast H2's default one second lock timeout
+        this.server = InProcessProductServer.start(
+                "spring.datasource.url=jdbc:h2:mem:devdb;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000");
+        this.server.seed(this.products);
+        var context = this.server.context();
+        this.productUpdateRepository = context.getBean(ProductUpdateRepository.class);
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.ids = this.jdbcTemplate.queryForList("select id from product order by id desc limit ?", Long.class,
+                        this.products)
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.server.close();
+    }
+
+    @Benchmark
+    public boolean raisePrice(Conflicts conflicts) {
+        var id = this.ids[ThreadLocalRandom.current().nextInt(this.ids.length)];
+        if ("pessimistic".equals(this.mode)) {
+            return Boolean.TRUE.equals(this.transactionTemplate.execute(status -> {
+                var price = this.jdbcTemplate.queryForObject(LOCK_SQL, Double.class, id);
+                return this.jdbcTemplate.update(WRITE_SQL, price + 1, id) > 0;
+            }));
+        }
+        while (true) {
+            var current = this.jdbcTemplate.queryForMap(READ_SQL, id);
+            var updated = this.productUpdateRepository.update(ProductUpdateDto.builder()
+                    .id(id)
+                    .price(((Number) current.get("price")).doubleValue() + 1)
+                    .expectedVersion(((Number) current.get("version")).longValue())
+                    .build());
+            if (updated) {
+                return true;
+            }
+            conflicts.conflicts++;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.conflicts = 0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductResponseList;
+import io.grpc.Codec;
+import io.grpc.Compressor;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes a FindAll response the way the gRPC transport does (serialize, then compress the message frame) and
+ * reports the CPU time per response plus its encoded size as the {@code wireBytes} counter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FindAllCompressionBenchmark {
+    @Param({"100", "1000", "10000", "50000"})
+    private int catalogSize;
+
+    @Param({"identity", "gzip"})
+    private String codec;
+
+    private ProductResponseList productResponseList;
+
+    private Compressor compressor;
+
+    private ByteArrayOutputStream frame;
+
+    @Setup
+    public void setUp() {
+        var productResponseList = ProductResponseList.newBuilder();
+        for (int i = 0; i < this.catalogSize; i++) {
+            productResponseList.addProducts(ProductResponse.newBuilder()
+                    .setId(101L + i)
+                    .setName("Seed product " + i)
+                    .setPrice(10.0 + i)
+                    .setQuantityInStock(i % 100));
+        }
+        this.productResponseList = productResponseList.build();
+        this.compressor = "gzip".equals(this.codec) ? new Codec.Gzip() : Codec.Identity.NONE;
+        this.frame = new ByteArrayOutputStream(this.productResponseList.getSerializedSize());
+    }
+
+    @Benchmark
+    public int encode(WireBytes wireBytes) throws IOException {
+        this.frame.reset();
+        try (var out = this.compressor.compress(this.frame)) {
+            this.productResponseList.writeTo(out);
+        }
+        wireBytes.wireBytes = this.frame.size();
+        return this.frame.size();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireBytes {
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.wireBytes = 0;
+        }
+    }
+}
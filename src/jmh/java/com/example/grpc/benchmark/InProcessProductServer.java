@@ -0,0 +1,91 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.ProductRequest;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.SpringBootWithGrpcApplication;
+import io.grpc.ManagedChannel;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application on the "test" profile (H2 + in-process gRPC server) for end-to-end benchmarks.
+ */
+public final class InProcessProductServer implements AutoCloseable {
+    private static final String IN_PROCESS_NAME = "test";
+
+    private final ConfigurableApplicationContext context;
+
+    private final ManagedChannel channel;
+
+    private InProcessProductServer(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.channel = InProcessChannelBuilder.forName(IN_PROCESS_NAME).build();
+    }
+
+    public static InProcessProductServer start(String... properties) {
+        // passed as command line arguments, which outrank the application's own property files
+        var arguments = Stream.concat(
+                        Stream.of("spring.jpa.show-sql=false", "logging.level.root=WARN", "spring.main.web-application-type=none"),
+                        Arrays.stream(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        var context = new SpringApplicationBuilder(SpringBootWithGrpcApplication.class)
+                .profiles("test")
+                .run(arguments);
+        return new InProcessProductServer(context);
+    }
+
+    public ConfigurableApplicationContext context() {
+        return this.context;
+    }
+
+    public ManagedChannel channel() {
+        return this.channel;
+    }
+
+    public ProductServiceGrpc.ProductServiceBlockingStub blockingStub() {
+        return ProductServiceGrpc.newBlockingStub(this.channel);
+    }
+
+    public void seed(int catalogSize) throws Exception {
+        var done = new CompletableFuture<Void>();
+        var requestObserver = ProductServiceGrpc.newStub(this.channel)
+                .createBatch(new StreamObserver<>() {
+                    @Override
+                    public void onNext(com.example.grpc.CreateBatchResponse value) {
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        done.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        done.complete(null);
+                    }
+                });
+        for (int i = 0; i < catalogSize; i++) {
+            requestObserver.onNext(ProductRequest.newBuilder()
+                    .setName("Seed product " + i)
+                    .setPrice(10.0 + i)
+                    .setQuantityInStock(i % 100)
+                    .build());
+        }
+        requestObserver.onCompleted();
+        done.get(5, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void close() throws Exception {
+        this.channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        this.context.close();
+    }
+}
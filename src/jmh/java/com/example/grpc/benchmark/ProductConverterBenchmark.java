@@ -0,0 +1,55 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.domain.Product;
+import com.example.grpc.dto.ProductInputDto;
+import com.example.grpc.dto.ProductOutputDto;
+import com.example.grpc.mapper.ProductConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductConverterBenchmark {
+    private ProductInputDto productInputDto;
+
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        this.productInputDto = ProductInputDto.builder()
+                .name("Televisão LG")
+                .price(2500.99)
+                .quantityInStock(10)
+                .build();
+        this.product = Product.builder()
+                .id(2L)
+                .name("Televisão LG")
+                .price(2500.99)
+                .quantityInStock(10)
+                .build();
+    }
+
+    @Benchmark
+    public Product inputDtoToEntity() {
+        return ProductConverter.converter(this.productInputDto);
+    }
+
+    @Benchmark
+    public ProductOutputDto entityToOutputDto() {
+        return ProductConverter.converter(this.product);
+    }
+}
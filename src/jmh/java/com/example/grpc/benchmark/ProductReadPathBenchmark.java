@@ -0,0 +1,88 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.mapper.ProductConverter;
+import com.example.grpc.repository.ProductRepository;
+import com.example.grpc.repository.ProductResponseRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads one page of {@value #PAGE_SIZE} products through the JPA path (entity, DTO, then protobuf) and through the
+ * JDBC projection. Scores are per row, so with {@code -prof gc} {@code gc.alloc.rate.norm} is bytes allocated per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductReadPathBenchmark {
+    private static final int PAGE_SIZE = 1000;
+
+    private InProcessProductServer server;
+
+    private ProductRepository productRepository;
+
+    private ProductResponseRepository productResponseRepository;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.server = InProcessProductServer.start();
+        this.server.seed(PAGE_SIZE);
+        this.productRepository = this.server.context().getBean(ProductRepository.class);
+        this.productResponseRepository = this.server.context().getBean(ProductResponseRepository.class);
+        this.readOnlyTransaction = new TransactionTemplate(this.server.context().getBean(PlatformTransactionManager.class));
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.server.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<ProductResponse> jpaEntities() {
+        return this.readOnlyTransaction.execute(status -> {
+            var products = this.productRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(PAGE_SIZE));
+            var responses = new ArrayList<ProductResponse>(products.size());
+            products.forEach(product -> {
+                var productOutputDto = ProductConverter.converter(product);
+                responses.add(ProductResponse.newBuilder()
+                        .setId(productOutputDto.getId())
+                        .setName(productOutputDto.getName())
+                        .setPrice(productOutputDto.getPrice())
+                        .setQuantityInStock(productOutputDto.getQuantityInStock())
+                        .build());
+            });
+            return responses;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<ProductResponse> jdbcProjection() {
+        return this.productResponseRepository.findByIdGreaterThanOrderByIdAsc(0L, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.EmptyRequest;
+import com.example.grpc.FindByIdsRequest;
+import com.example.grpc.FindByIdsResponse;
+import com.example.grpc.PageRequest;
+import com.example.grpc.ProductPage;
+import com.example.grpc.ProductRequest;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductResponseList;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.RequestById;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductResourceBenchmark {
+    @Param({"100", "10000"})
+    private int catalogSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private InProcessProductServer server;
+
+    private ProductServiceGrpc.ProductServiceBlockingStub stub;
+
+    private RequestById requestById;
+
+    private FindByIdsRequest findByIdsRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.server = InProcessProductServer.start();
+        this.server.seed(this.catalogSize);
+        this.stub = this.server.blockingStub();
+        this.requestById = RequestById.newBuilder().setId(1L).build();
+        // seeded products start at the sequence's first value (101)
+        this.findByIdsRequest = FindByIdsRequest.newBuilder()
+                .addAllIds(LongStream.range(101, 201).boxed()::iterator)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.server.close();
+    }
+
+    @Benchmark
+    public ProductResponse findById() {
+        return this.stub.findById(this.requestById);
+    }
+
+    @Benchmark
+    public FindByIdsResponse findByIds() {
+        return this.stub.findByIds(this.findByIdsRequest);
+    }
+
+    @Benchmark
+    public ProductResponse create() {
+        return this.stub.create(ProductRequest.newBuilder()
+                .setName("Benchmark product " + this.sequence.incrementAndGet())
+                .setPrice(99.9)
+                .setQuantityInStock(1)
+                .build());
+    }
+
+    @Benchmark
+    public ProductResponseList findAll() {
+        return this.stub.findAll(EmptyRequest.getDefaultInstance());
+    }
+
+    @Benchmark
+    public ProductPage findPage() {
+        return this.stub.findPage(PageRequest.newBuilder().setPageSize(100).build());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductResponseList;
+import com.example.grpc.dto.ProductOutputDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductResponseSerializationBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private List<ProductOutputDto> products;
+
+    private ProductResponse productResponse;
+
+    private ProductResponseList productResponseList;
+
+    @Setup
+    public void setUp() {
+        this.products = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            this.products.add(new ProductOutputDto((long) i + 1, "Product " + i, 10.0 + i, i % 100, 0L));
+        }
+        this.productResponse = this.toProductResponse(this.products.get(0));
+        this.productResponseList = this.buildList();
+    }
+
+    @Benchmark
+    public ProductResponse buildResponse() {
+        return this.toProductResponse(this.products.get(0));
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() {
+        return this.productResponse.toByteArray();
+    }
+
+    @Benchmark
+    public ProductResponseList buildList() {
+        var productResponseList = ProductResponseList.newBuilder();
+        for (ProductOutputDto product : this.products) {
+            productResponseList.addProducts(this.toProductResponse(product));
+        }
+        return productResponseList.build();
+    }
+
+    @Benchmark
+    public byte[] serializeList() {
+        return this.productResponseList.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeList() {
+        return this.buildList().toByteArray();
+    }
+
+    private ProductResponse toProductResponse(ProductOutputDto productOutputDto) {
+        return ProductResponse.newBuilder()
+                .setId(productOutputDto.getId())
+                .setName(productOutputDto.getName())
+                .setPrice(productOutputDto.getPrice())
+                .setQuantityInStock(productOutputDto.getQuantityInStock())
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.EmptyRequest;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.SearchRequest;
+import com.google.protobuf.DoubleValue;
+import com.google.protobuf.Int32Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * "Low stock within a price range" answered by the Search RPC versus downloading the catalog with FindAll and
+ * filtering on the client, as downstream services do today.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchBenchmark {
+    private static final double MIN_PRICE = 100.0;
+
+    private static final double MAX_PRICE = 200.0;
+
+    private static final int MAX_QUANTITY_IN_STOCK = 5;
+
+    @Param({"1000", "10000", "50000"})
+    private int catalogSize;
+
+    private InProcessProductServer server;
+
+    private ProductServiceGrpc.ProductServiceBlockingStub stub;
+
+    private SearchRequest searchRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.server = InProcessProductServer.start();
+        this.server.seed(this.catalogSize);
+        this.stub = this.server.blockingStub();
+        this.searchRequest = SearchRequest.newBuilder()
+                .setMinPrice(DoubleValue.of(MIN_PRICE))
+                .setMaxPrice(DoubleValue.of(MAX_PRICE))
+                .setMaxQuantityInStock(Int32Value.of(MAX_QUANTITY_IN_STOCK))
+                .setSort(SearchRequest.Sort.PRICE)
+                .setChunkSize(1000)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.server.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> search() {
+        var products = new ArrayList<ProductResponse>();
+        this.stub.search(this.searchRequest).forEachRemaining(chunk -> products.addAll(chunk.getProductsList()));
+        return products;
+    }
+
+    @Benchmark
+    public List<ProductResponse> findAllAndFilter() {
+        return this.stub.findAll(EmptyRequest.getDefaultInstance()).getProductsList().stream()
+                .filter(product -> product.getPrice() >= MIN_PRICE && product.getPrice() <= MAX_PRICE)
+                .filter(product -> product.getQuantityInStock() <= MAX_QUANTITY_IN_STOCK)
+                .sorted((left, right) -> Double.compare(left.getPrice(), right.getPrice()))
+                .collect(Collectors.toList());
+    }
+}
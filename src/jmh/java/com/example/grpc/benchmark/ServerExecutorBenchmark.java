@@ -0,0 +1,66 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.PageRequest;
+import com.example.grpc.ProductPage;
+import com.example.grpc.ProductServiceGrpc;
+import io.grpc.StatusRuntimeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares p99 latency of a DB-bound call under 128 concurrent callers for each grpc.server.executor.mode.
+ * The "virtual" mode needs the benchmark JVM to run on JDK 21+.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(128)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ServerExecutorBenchmark {
+    @Param({"default", "bounded", "virtual"})
+    private String mode;
+
+    private InProcessProductServer server;
+
+    private ProductServiceGrpc.ProductServiceBlockingStub stub;
+
+    private PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.server = InProcessProductServer.start("grpc.server.executor.mode=" + this.mode);
+        this.server.seed(10_000);
+        this.stub = this.server.blockingStub();
+        this.pageRequest = PageRequest.newBuilder().setPageSize(500).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.server.close();
+    }
+
+    @Benchmark
+    public ProductPage findPage() {
+        try {
+            return this.stub.findPage(this.pageRequest);
+        } catch (StatusRuntimeException e) {
+            return ProductPage.getDefaultInstance();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.grpc.benchmark;
+
+import com.example.grpc.AdjustStockRequest;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.StockLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 32 callers adjusting the stock of the same product: every adjustment as its own conditional UPDATE (row lock
+ * contention on one row) versus coalesced by the in-memory accumulator (product.stock.hot-ids).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Threads(32)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StockContentionBenchmark {
+    private static final long HOT_PRODUCT_ID = 1L;
+
+    @Param({"conditional-update", "accumulator"})
+    private String mode;
+
+    private InProcessProductServer server;
+
+    private ProductServiceGrpc.ProductServiceBlockingStub stub;
+
+    private AdjustStockRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var hotIds = "accumulator".equals(this.mode) ? String.valueOf(HOT_PRODUCT_ID) : "";
+        this.server = InProcessProductServer.start("product.stock.hot-ids=" + hotIds);
+        this.stub = this.server.blockingStub();
+        this.request = AdjustStockRequest.newBuilder()
+                .setId(HOT_PRODUCT_ID)
+                .setDelta(1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.server.close();
+    }
+
+    @Benchmark
+    public StockLevel adjustStock() {
+        return this.stub.adjustStock(this.request);
+    }
+}
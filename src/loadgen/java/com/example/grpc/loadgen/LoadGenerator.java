@@ -0,0 +1,336 @@
+package com.example.grpc.loadgen;
+
+import com.example.grpc.EmptyRequest;
+import com.example.grpc.ProductRequest;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.RequestById;
+import com.example.grpc.SpringBootWithGrpcApplication;
+import com.example.grpc.StreamAllRequest;
+import com.example.grpc.loadgen.LoadGeneratorOptions.Operation;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the product API with a weighted mix of Create/FindById/FindAll/Delete and reports
+ * per-method throughput and HdrHistogram latencies.
+ *
+ * <p>Open loop ({@code --rps}) measures each call from its scheduled start, so a stalled server
+ * shows up in the percentiles instead of slowing the generator down (coordinated omission).
+ * Without {@code --rps} a closed loop of {@code --concurrency} callers is used.
+ */
+public final class LoadGenerator {
+    private final LoadGeneratorOptions options;
+
+    private final List<ManagedChannel> channels = new ArrayList<>();
+
+    private final AtomicInteger nextChannel = new AtomicInteger();
+
+    private final Map<Operation, MethodStats> stats = new EnumMap<>(Operation.class);
+
+    private final Map<Status.Code, LongAdder> failures = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final Operation[] schedule;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private long[] catalogIds = new long[0];
+
+    private LoadGenerator(LoadGeneratorOptions options) {
+        this.options = options;
+        for (Operation operation : Operation.values()) {
+            this.stats.put(operation, new MethodStats());
+        }
+        var weighted = new ArrayList<Operation>();
+        options.mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.schedule = weighted.toArray(new Operation[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadGeneratorOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String target = options.target;
+        if (target.isEmpty()) {
+            context = new SpringApplicationBuilder(SpringBootWithGrpcApplication.class)
+                    .profiles("test")
+                    // command line arguments outrank the property files; application-test.properties disables the
+                    // Netty server
+                    .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                            "--spring.main.web-application-type=none", "--grpc.server.port=" + options.port);
+            target = "localhost:" + options.port;
+        }
+        try {
+            new LoadGenerator(options).run(target);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void run(String target) throws Exception {
+        for (int i = 0; i < this.options.channels; i++) {
+            this.channels.add(ManagedChannelBuilder.forTarget(target).usePlaintext().build());
+        }
+        try {
+            seed();
+            System.out.printf("target=%s channels=%d mix=%s %s warmup=%s duration=%s catalog=%d%n",
+                    target, this.options.channels, this.options.mix,
+                    this.options.rps > 0 ? "rps=" + this.options.rps : "concurrency=" + this.options.concurrency,
+                    this.options.warmup, this.options.duration, this.catalogIds.length);
+
+            long start = System.nanoTime();
+            long measureStart = start + this.options.warmup.toNanos();
+            long end = measureStart + this.options.duration.toNanos();
+            var resetter = new Thread(() -> {
+                LockSupport.parkNanos(measureStart - System.nanoTime());
+                reset();
+            }, "loadgen-warmup");
+            resetter.start();
+            if (this.options.rps > 0) {
+                runOpenLoop(start, end);
+            } else {
+                runClosedLoop(end);
+            }
+            resetter.join();
+            report(System.nanoTime() - measureStart);
+        } finally {
+            for (ManagedChannel channel : this.channels) {
+                channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private void seed() throws Exception {
+        if (this.options.catalogSize > 0) {
+            var done = new CompletableFuture<Void>();
+            var requestObserver = ProductServiceGrpc.newStub(channel())
+                    .createBatch(new StreamObserver<>() {
+                        @Override
+                        public void onNext(com.example.grpc.CreateBatchResponse value) {
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            done.completeExceptionally(t);
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            done.complete(null);
+                        }
+                    });
+            for (int i = 0; i < this.options.catalogSize; i++) {
+                requestObserver.onNext(ProductRequest.newBuilder()
+                        .setName("Loadgen " + this.runId + " seed " + i)
+                        .setPrice(10.0 + i)
+                        .setQuantityInStock(i % 100)
+                        .build());
+            }
+            requestObserver.onCompleted();
+            done.get(5, TimeUnit.MINUTES);
+        }
+        var ids = new ArrayList<Long>();
+        ProductServiceGrpc.newBlockingStub(channel())
+                .streamAll(StreamAllRequest.newBuilder().setChunkSize(500).build())
+                .forEachRemaining(chunk -> chunk.getProductsList().forEach(product -> ids.add(product.getId())));
+        this.catalogIds = ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void runOpenLoop(long start, long end) throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / this.options.rps;
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * interval;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (this.outstanding.get() >= this.options.maxOutstanding) {
+                this.dropped.increment();
+                continue;
+            }
+            this.outstanding.incrementAndGet();
+            issue(intendedStart, () -> this.outstanding.decrementAndGet());
+        }
+        awaitOutstanding();
+    }
+
+    private void runClosedLoop(long end) throws InterruptedException {
+        var finished = new CountDownLatch(this.options.concurrency);
+        for (int i = 0; i < this.options.concurrency; i++) {
+            new Runnable() {
+                @Override
+                public void run() {
+                    if (System.nanoTime() >= end) {
+                        finished.countDown();
+                    } else {
+                        issue(System.nanoTime(), this);
+                    }
+                }
+            }.run();
+        }
+        finished.await();
+    }
+
+    private void awaitOutstanding() throws InterruptedException {
+        long giveUp = System.nanoTime() + this.options.deadline.toNanos() * 2;
+        while (this.outstanding.get() > 0 && System.nanoTime() < giveUp) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void issue(long startNanos, Runnable onComplete) {
+        Operation operation = this.schedule[ThreadLocalRandom.current().nextInt(this.schedule.length)];
+        Long deleteId = null;
+        if (operation == Operation.DELETE) {
+            deleteId = this.createdIds.poll();
+            if (deleteId == null) {
+                // nothing of ours to delete yet; create instead so seeded products are never removed
+                operation = Operation.CREATE;
+            }
+        }
+        var stub = ProductServiceGrpc.newFutureStub(channel())
+                .withDeadlineAfter(this.options.deadline.toNanos(), TimeUnit.NANOSECONDS);
+        ListenableFuture<?> call;
+        switch (operation) {
+            case CREATE:
+                call = stub.create(ProductRequest.newBuilder()
+                        .setName("Loadgen " + this.runId + " " + this.sequence.incrementAndGet())
+                        .setPrice(1.0 + ThreadLocalRandom.current().nextInt(1000))
+                        .setQuantityInStock(ThreadLocalRandom.current().nextInt(100))
+                        .build());
+                break;
+            case FIND_BY_ID:
+                call = stub.findById(RequestById.newBuilder().setId(randomCatalogId()).build());
+                break;
+            case FIND_ALL:
+                call = stub.findAll(EmptyRequest.getDefaultInstance());
+                break;
+            case DELETE:
+                call = stub.delete(RequestById.newBuilder().setId(deleteId).build());
+                break;
+            default:
+                throw new IllegalStateException("Operação não suportada: " + operation);
+        }
+        MethodStats methodStats = this.stats.get(operation);
+        Operation issued = operation;
+        Futures.addCallback(call, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(Object result) {
+                methodStats.latencies.recordValue(System.nanoTime() - startNanos);
+                if (issued == Operation.CREATE) {
+                    LoadGenerator.this.createdIds.offer(((ProductResponse) result).getId());
+                }
+                onComplete.run();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                methodStats.errors.increment();
+                LoadGenerator.this.failures.computeIfAbsent(Status.fromThrowable(t).getCode(), code -> new LongAdder())
+                        .increment();
+                onComplete.run();
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private long randomCatalogId() {
+        if (this.catalogIds.length == 0) {
+            return 1;
+        }
+        return this.catalogIds[ThreadLocalRandom.current().nextInt(this.catalogIds.length)];
+    }
+
+    private ManagedChannel channel() {
+        return this.channels.get(Math.floorMod(this.nextChannel.getAndIncrement(), this.channels.size()));
+    }
+
+    private void reset() {
+        this.stats.values().forEach(MethodStats::reset);
+        this.failures.clear();
+        this.dropped.reset();
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%n%-10s %10s %10s %8s %10s %10s %10s %10s%n",
+                "method", "count", "ops/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        var total = new Histogram(3);
+        long totalErrors = 0;
+        for (var entry : this.stats.entrySet()) {
+            Histogram histogram = entry.getValue().latencies.getIntervalHistogram();
+            long errors = entry.getValue().errors.sum();
+            total.add(histogram);
+            totalErrors += errors;
+            if (histogram.getTotalCount() > 0 || errors > 0) {
+                printRow(entry.getKey().optionName(), histogram, errors, seconds);
+            }
+        }
+        printRow("total", total, totalErrors, seconds);
+        if (this.dropped.sum() > 0) {
+            System.out.printf("dropped (max-outstanding reached): %d%n", this.dropped.sum());
+        }
+        this.failures.forEach((code, count) -> System.out.printf("failures %s: %d%n", code, count.sum()));
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-10s %10d %10.1f %8d %10.3f %10.3f %10.3f %10.3f%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds, errors,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class MethodStats {
+        private final Recorder latencies = new Recorder(3);
+
+        private final LongAdder errors = new LongAdder();
+
+        private void reset() {
+            this.latencies.reset();
+            this.errors.reset();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.grpc.loadgen;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options of {@link LoadGenerator}, given as {@code --name=value}.
+ */
+final class LoadGeneratorOptions {
+    /** host:port of a running server; empty boots the application on the "test" profile (H2). */
+    String target = "";
+
+    /** Port of the embedded server when no target is given. */
+    int port = 9090;
+
+    /** Products created before the run so FindById and FindAll have data. */
+    int catalogSize = 1000;
+
+    /** Open loop at this rate (requests per second); 0 switches to a closed loop of {@link #concurrency} callers. */
+    int rps = 0;
+
+    int concurrency = 16;
+
+    int channels = 4;
+
+    /** Upper bound of requests in flight in open loop; further requests are counted as dropped. */
+    int maxOutstanding = 10_000;
+
+    Duration warmup = Duration.ofSeconds(5);
+
+    Duration duration = Duration.ofSeconds(30);
+
+    Duration deadline = Duration.ofSeconds(5);
+
+    final Map<Operation, Integer> mix = new EnumMap<>(Map.of(
+            Operation.CREATE, 1,
+            Operation.FIND_BY_ID, 6,
+            Operation.FIND_ALL, 1,
+            Operation.DELETE, 1));
+
+    static LoadGeneratorOptions parse(String... args) {
+        var options = new LoadGeneratorOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "target": options.target = value; break;
+                case "port": options.port = Integer.parseInt(value); break;
+                case "catalog-size": options.catalogSize = Integer.parseInt(value); break;
+                case "rps": options.rps = Integer.parseInt(value); break;
+                case "concurrency": options.concurrency = Integer.parseInt(value); break;
+                case "channels": options.channels = Integer.parseInt(value); break;
+                case "max-outstanding": options.maxOutstanding = Integer.parseInt(value); break;
+                case "warmup": options.warmup = DurationStyle.detectAndParse(value); break;
+                case "duration": options.duration = DurationStyle.detectAndParse(value); break;
+                case "deadline": options.deadline = DurationStyle.detectAndParse(value); break;
+                case "mix": options.parseMix(value); break;
+                default: throw new IllegalArgumentException("Opção desconhecida: --" + name);
+            }
+        }
+        if (options.channels < 1 || options.concurrency < 1 || options.rps < 0) {
+            throw new IllegalArgumentException("channels e concurrency devem ser positivos e rps não negativo.");
+        }
+        return options;
+    }
+
+    /** {@code create:1,findById:6,findAll:1,delete:1}; operations left out get weight 0. */
+    private void parseMix(String value) {
+        this.mix.replaceAll((operation, weight) -> 0);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix inválido: " + entry);
+            }
+            this.mix.put(Operation.fromOptionName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        if (this.mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("O mix deve ter ao menos uma operação com peso positivo.");
+        }
+    }
+
+    enum Operation {
+        CREATE("create"), FIND_BY_ID("findById"), FIND_ALL("findAll"), DELETE("delete");
+
+        private final String optionName;
+
+        Operation(String optionName) {
+            this.optionName = optionName;
+        }
+
+        String optionName() {
+            return this.optionName;
+        }
+
+        static Operation fromOptionName(String name) {
+            for (Operation operation : values()) {
+                if (operation.optionName.toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT))) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Operação desconhecida no mix: " + name);
+        }
+    }
+}
@@ -2,12 +2,23 @@ package com.example.grpc;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SpringBootWithGrpcApplication {
+	// enough for every step of a startup; the timeline is logged when ready and served at /actuator/startup
+	private static final int STARTUP_STEPS_CAPACITY = 8192;
 
 	public static void main(String[] args) {
-		SpringApplication.run(SpringBootWithGrpcApplication.class, args);
+		var application = new SpringApplication(SpringBootWithGrpcApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+		var context = application.run(args);
+		// training run of the AppCDS archive (appcds profile): the archive is written when the JVM exits
+		if (context.getEnvironment().getProperty("product.startup.exit-on-ready", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 
@@ -0,0 +1,62 @@
+package com.example.grpc.cache;
+
+import com.example.grpc.ProductRequest;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.config.ProductProperties;
+import com.example.grpc.service.exception.IdempotencyKeyReusedException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of creates sent with an idempotency key, so a retried create gets the original response.
+ * Concurrent replays share the in-flight future; failed creates are not retained and may be retried.
+ */
+@Component
+public class IdempotentResponseCache {
+    private static final String CACHE_NAME = "product.idempotency";
+
+    private final AsyncCache<String, IdempotentResponse> cache;
+
+    public IdempotentResponseCache(ProductProperties productProperties, MeterRegistry meterRegistry) {
+        var idempotencyProperties = productProperties.getIdempotency();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.getMaximumSize())
+                .expireAfterWrite(idempotencyProperties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache.synchronous(), CACHE_NAME);
+    }
+
+    public CompletableFuture<ProductResponse> getOrCreate(String key, ProductRequest request,
+                                                         Supplier<CompletableFuture<ProductResponse>> create) {
+        return this.cache.get(key, (ignored, executor) -> create.get()
+                        .thenApply(response -> new IdempotentResponse(request, response)))
+                .thenApply(idempotentResponse -> {
+                    if (!idempotentResponse.request.equals(request)) {
+                        throw new IdempotencyKeyReusedException(key);
+                    }
+                    return idempotentResponse.response;
+                });
+    }
+
+    public void invalidateAll() {
+        this.cache.synchronous().invalidateAll();
+    }
+
+    private static final class IdempotentResponse {
+        private final ProductRequest request;
+
+        private final ProductResponse response;
+
+        private IdempotentResponse(ProductRequest request, ProductResponse response) {
+            this.request = request;
+            this.response = response;
+        }
+    }
+}
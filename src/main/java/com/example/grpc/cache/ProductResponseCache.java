@@ -0,0 +1,70 @@
+package com.example.grpc.cache;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.config.ProductProperties;
+import com.example.grpc.service.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Component
+public class ProductResponseCache {
+    private static final String CACHE_NAME = "product.response";
+
+    private final AsyncCache<Long, ProductResponse> cache;
+
+    public ProductResponseCache(ProductProperties productProperties, MeterRegistry meterRegistry) {
+        var cacheProperties = productProperties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache.synchronous(), CACHE_NAME);
+    }
+
+    public CompletableFuture<ProductResponse> get(Long id, Function<Long, CompletableFuture<ProductResponse>> loader) {
+        return this.cache.get(id, (key, executor) -> loader.apply(key));
+    }
+
+    public CompletableFuture<Map<Long, ProductResponse>> getAll(Collection<Long> ids,
+                                                               Function<Collection<Long>, CompletableFuture<Map<Long, ProductResponse>>> loader) {
+        return this.cache.getAll(ids, (missingIds, executor) -> {
+            var keys = new ArrayList<Long>();
+            missingIds.forEach(keys::add);
+            return loader.apply(keys);
+        });
+    }
+
+    /**
+     * Cached ids, the ones most likely to be retained first.
+     */
+    public List<Long> hottestIds(int limit) {
+        return this.cache.synchronous().policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(limit).keySet()))
+                .orElseGet(List::of);
+    }
+
+    public void invalidate(Long id) {
+        this.cache.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll() {
+        this.cache.synchronous().invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        this.invalidate(event.getId());
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.grpc.catalog;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductResponseList;
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable catalog sorted by id: one primitive array per column plus the catalog encoded as a
+ * {@link ProductResponseList}, where entry {@code i} spans {@code bytes[offsets[i]..offsets[i + 1])}. A batch of
+ * changes is merged in one copy that re-encodes only the changed entries.
+ */
+final class CatalogColumns {
+    static final CatalogColumns EMPTY = new CatalogColumns(new long[0], new String[0], new double[0], new int[0],
+            new long[0], new int[]{0}, new byte[0]);
+
+    // array header, and String header plus its backing array header, on a 64-bit JVM with compressed oops
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private static final int STRING_HEADER_BYTES = 24 + ARRAY_HEADER_BYTES;
+
+    private final long[] ids;
+
+    private final String[] names;
+
+    private final double[] prices;
+
+    private final int[] quantities;
+
+    private final long[] versions;
+
+    private final int[] offsets;
+
+    private final byte[] bytes;
+
+    private CatalogColumns(long[] ids, String[] names, double[] prices, int[] quantities, long[] versions,
+                           int[] offsets, byte[] bytes) {
+        this.ids = ids;
+        this.names = names;
+        this.prices = prices;
+        this.quantities = quantities;
+        this.versions = versions;
+        this.offsets = offsets;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @param products catalog in ascending id order
+     * @param interner shares name strings with earlier columns
+     */
+    static CatalogColumns of(List<ProductResponse> products, UnaryOperator<String> interner) {
+        var size = products.size();
+        var ids = new long[size];
+        var names = new String[size];
+        var prices = new double[size];
+        var quantities = new int[size];
+        var versions = new long[size];
+        var offsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            var product = products.get(i);
+            ids[i] = product.getId();
+            names[i] = interner.apply(product.getName());
+            prices[i] = product.getPrice();
+            quantities[i] = product.getQuantityInStock();
+            versions[i] = product.getVersion();
+            offsets[i + 1] = offsets[i] + CodedOutputStream.computeMessageSize(ProductResponseList.PRODUCTS_FIELD_NUMBER, product);
+        }
+        var bytes = new byte[offsets[size]];
+        var output = CodedOutputStream.newInstance(bytes);
+        try {
+            for (ProductResponse product : products) {
+                output.writeMessage(ProductResponseList.PRODUCTS_FIELD_NUMBER, product);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CatalogColumns(ids, names, prices, quantities, versions, offsets, bytes);
+    }
+
+    int size() {
+        return this.ids.length;
+    }
+
+    /**
+     * The whole catalog as a serialized {@link ProductResponseList}; callers must not modify it.
+     */
+    byte[] bytes() {
+        return this.bytes;
+    }
+
+    ProductResponse productAt(int index) {
+        return ProductResponse.newBuilder()
+                .setId(this.ids[index])
+                .setName(this.names[index])
+                .setPrice(this.prices[index])
+                .setQuantityInStock(this.quantities[index])
+                .setVersion(this.versions[index])
+                .build();
+    }
+
+    int indexOf(long id) {
+        return Arrays.binarySearch(this.ids, id);
+    }
+
+    /**
+     * The product with this id, or null when the catalog has none.
+     */
+    ProductResponse find(long id) {
+        var index = this.indexOf(id);
+        return index >= 0 ? this.productAt(index) : null;
+    }
+
+    /**
+     * Merges a batch of changes in one pass: runs of untouched entries are copied as they are and only the changed
+     * entries are re-encoded.
+     *
+     * @param changes new product per id, or null to remove the id
+     */
+    CatalogColumns apply(SortedMap<Long, ProductResponse> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        var size = this.ids.length;
+        var byteSize = this.bytes.length;
+        for (Map.Entry<Long, ProductResponse> change : changes.entrySet()) {
+            var index = this.indexOf(change.getKey());
+            if (index >= 0) {
+                size--;
+                byteSize -= this.offsets[index + 1] - this.offsets[index];
+            }
+            if (change.getValue() != null) {
+                size++;
+                byteSize += CodedOutputStream.computeMessageSize(ProductResponseList.PRODUCTS_FIELD_NUMBER, change.getValue());
+            }
+        }
+        var merged = new CatalogColumns(new long[size], new String[size], new double[size], new int[size],
+                new long[size], new int[size + 1], new byte[byteSize]);
+        var from = 0;
+        var at = 0;
+        for (Map.Entry<Long, ProductResponse> change : changes.entrySet()) {
+            var index = this.indexOf(change.getKey());
+            var runEnd = index >= 0 ? index : -index - 1;
+            at = merged.copyRun(this, from, runEnd, at);
+            from = index >= 0 ? index + 1 : runEnd;
+            if (change.getValue() != null) {
+                merged.set(at++, change.getValue());
+            }
+        }
+        merged.copyRun(this, from, this.ids.length, at);
+        return merged;
+    }
+
+    /**
+     * Heap retained by this catalog: the column arrays, the distinct name strings and the serialized list.
+     */
+    long estimatedMemoryBytes() {
+        long memory = 6L * ARRAY_HEADER_BYTES
+                + this.ids.length * (8L + 8L + 4L + 4L + 8L)
+                + this.offsets.length * 4L
+                + ARRAY_HEADER_BYTES + this.bytes.length;
+        for (String name : this.names) {
+            memory += STRING_HEADER_BYTES + (long) name.length() * (this.isLatin1(name) ? 1 : 2);
+        }
+        return memory;
+    }
+
+    /**
+     * Copies {@code source} entries {@code [from, to)} to position {@code at}; returns the next free position.
+     */
+    private int copyRun(CatalogColumns source, int from, int to, int at) {
+        var length = to - from;
+        if (length == 0) {
+            return at;
+        }
+        System.arraycopy(source.ids, from, this.ids, at, length);
+        System.arraycopy(source.names, from, this.names, at, length);
+        System.arraycopy(source.prices, from, this.prices, at, length);
+        System.arraycopy(source.quantities, from, this.quantities, at, length);
+        System.arraycopy(source.versions, from, this.versions, at, length);
+        var start = source.offsets[from];
+        System.arraycopy(source.bytes, start, this.bytes, this.offsets[at], source.offsets[to] - start);
+        var shift = this.offsets[at] - start;
+        for (int i = 1; i <= length; i++) {
+            this.offsets[at + i] = source.offsets[from + i] + shift;
+        }
+        return at + length;
+    }
+
+    private void set(int at, ProductResponse product) {
+        this.ids[at] = product.getId();
+        this.names[at] = product.getName();
+        this.prices[at] = product.getPrice();
+        this.quantities[at] = product.getQuantityInStock();
+        this.versions[at] = product.getVersion();
+        var length = CodedOutputStream.computeMessageSize(ProductResponseList.PRODUCTS_FIELD_NUMBER, product);
+        try {
+            var output = CodedOutputStream.newInstance(this.bytes, this.offsets[at], length);
+            output.writeMessage(ProductResponseList.PRODUCTS_FIELD_NUMBER, product);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.offsets[at + 1] = this.offsets[at] + length;
+    }
+
+    private boolean isLatin1(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.grpc.catalog;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.config.ProductProperties;
+import com.example.grpc.repository.ProductResponseRepository;
+import com.example.grpc.service.event.LatestChangeFilter;
+import com.example.grpc.service.event.ProductChangedEvent;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory copy of the product table kept as {@link CatalogColumns}. Readers get the current columns without
+ * locking. Committed changes are queued and merged in batches on the snapshot's own thread, which also runs the
+ * periodic reload from the database that corrects whatever the events missed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "product.snapshot", name = "enabled", havingValue = "true")
+public class CatalogSnapshot {
+    private static final int RELOAD_CHUNK_SIZE = 5000;
+
+    private final ProductResponseRepository productResponseRepository;
+
+    private final Interner<String> names = Interners.newWeakInterner();
+
+    private final Timer reloadTimer;
+
+    // runs reloads and merges one at a time, so only this thread writes columns
+    private final ScheduledExecutorService executor;
+
+    private final Queue<ProductChangedEvent> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean mergeScheduled = new AtomicBoolean();
+
+    private final LatestChangeFilter latestChanges = new LatestChangeFilter();
+
+    private volatile CatalogColumns columns;
+
+    public CatalogSnapshot(ProductProperties productProperties, ProductResponseRepository productResponseRepository,
+                           MeterRegistry meterRegistry) {
+        this.productResponseRepository = productResponseRepository;
+        this.reloadTimer = Timer.builder("product.snapshot.reload")
+                .description("Time to reload the catalog snapshot from the database")
+                .register(meterRegistry);
+        Gauge.builder("product.snapshot.products", this, snapshot -> snapshot.current().size())
+                .description("Products in the catalog snapshot")
+                .register(meterRegistry);
+        Gauge.builder("product.snapshot.serialized", this, snapshot -> snapshot.current().bytes().length)
+                .description("Size of the serialized FindAll response")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("product.snapshot.memory", this, snapshot -> snapshot.current().estimatedMemoryBytes())
+                .description("Estimated heap retained by the catalog snapshot")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        var reconcileMillis = productProperties.getSnapshot().getReconcileInterval().toMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("product-snapshot-"));
+        this.executor.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The catalog as a serialized {@code ProductResponseList}, or null until the first load completes. The array is
+     * shared and must not be modified.
+     */
+    public byte[] serializedProducts() {
+        var current = this.columns;
+        return current == null ? null : current.bytes();
+    }
+
+    public boolean isLoaded() {
+        return this.columns != null;
+    }
+
+    /**
+     * Reloads the catalog on the snapshot thread and waits for it.
+     */
+    public void reconcile() {
+        this.runOnSnapshotThread(this::reload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        this.pendingChanges.add(event);
+        if (this.mergeScheduled.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this::mergePendingChanges);
+            } catch (RejectedExecutionException e) {
+                log.debug("Catalog snapshot is shutting down; dropping change to product {}", event.getId());
+            }
+        }
+    }
+
+    /**
+     * Waits until the changes queued so far are merged.
+     */
+    void awaitPendingChanges() {
+        this.runOnSnapshotThread(() -> {
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private CatalogColumns current() {
+        var current = this.columns;
+        return current == null ? CatalogColumns.EMPTY : current;
+    }
+
+    private List<ProductResponse> readCatalog() {
+        var products = new ArrayList<ProductResponse>();
+        List<ProductResponse> chunk;
+        var afterId = 0L;
+        do {
+            chunk = this.productResponseRepository.findByIdGreaterThanOrderByIdAsc(afterId, RELOAD_CHUNK_SIZE);
+            products.addAll(chunk);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == RELOAD_CHUNK_SIZE);
+        return products;
+    }
+
+    private void reload() {
+        var start = System.nanoTime();
+        var firstLoad = this.columns == null;
+        var reloaded = CatalogColumns.of(this.readCatalog(), this.names::intern);
+        this.columns = reloaded;
+        var elapsedNanos = System.nanoTime() - start;
+        this.reloadTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        var message = "Catalog snapshot loaded: {} products, {} bytes serialized, ~{} bytes retained, {} ms";
+        var arguments = new Object[]{reloaded.size(), reloaded.bytes().length, reloaded.estimatedMemoryBytes(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos)};
+        if (firstLoad) {
+            log.info(message, arguments);
+        } else {
+            log.debug(message, arguments);
+        }
+    }
+
+    /**
+     * Folds every queued change into one sorted batch, later changes to an id replacing earlier ones, and merges it
+     * in a single copy. Changes queued before the first load are covered by it; changes committed while a reload
+     * reads the table stay queued and are merged on top of it.
+     */
+    private void mergePendingChanges() {
+        this.mergeScheduled.set(false);
+        var current = this.columns;
+        var changes = new TreeMap<Long, ProductResponse>();
+        ProductChangedEvent event;
+        while ((event = this.pendingChanges.poll()) != null) {
+            if (current != null) {
+                this.fold(changes, current, event);
+            }
+        }
+        if (current != null) {
+            this.columns = current.apply(changes);
+        }
+    }
+
+    private void fold(SortedMap<Long, ProductResponse> changes, CatalogColumns current, ProductChangedEvent event) {
+        if (!this.latestChanges.isLatest(event)) {
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED:
+            case UPDATED:
+                var product = event.getProduct();
+                changes.put(product.getId(), ProductResponse.newBuilder()
+                        .setId(product.getId())
+                        .setName(this.names.intern(product.getName()))
+                        .setPrice(product.getPrice())
+                        .setQuantityInStock(product.getQuantityInStock())
+                        .setVersion(product.getVersion())
+                        .build());
+                break;
+            case DELETED:
+                changes.put(event.getId(), null);
+                break;
+            case STOCK_ADJUSTED:
+                var adjusted = changes.containsKey(event.getId()) ? changes.get(event.getId()) : current.find(event.getId());
+                if (adjusted != null) {
+                    changes.put(event.getId(), adjusted.toBuilder().setQuantityInStock(event.getQuantityInStock()).build());
+                }
+                break;
+        }
+    }
+
+    private void runOnSnapshotThread(Runnable task) {
+        try {
+            this.executor.submit(task).get();
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            this.reload();
+        } catch (RuntimeException e) {
+            log.warn("Catalog snapshot reload failed; serving the previous snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.grpc.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+
+final class DataSourcePools {
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private DataSourcePools() {
+    }
+
+    static int sizeOr(int configuredSize, DataSource dataSource) {
+        if (configuredSize > 0) {
+            return configuredSize;
+        }
+        if (dataSource instanceof HikariDataSource) {
+            return ((HikariDataSource) dataSource).getMaximumPoolSize();
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.grpc.config;
+
+import com.example.grpc.resource.interceptor.CallAdmissionInterceptor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@ConditionalOnExpression("'${grpc.server.executor.mode:default}'.toLowerCase() != 'default'")
+public class GrpcServerExecutorConfiguration {
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService grpcServerExecutor(GrpcServerExecutorProperties properties, DataSource dataSource) {
+        if (properties.getMode() == GrpcServerExecutorProperties.Mode.VIRTUAL) {
+            return this.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(this.workerThreads(properties, dataSource),
+                new CustomizableThreadFactory("grpc-bounded-"));
+    }
+
+    @Bean
+    public GrpcServerConfigurer grpcServerExecutorConfigurer(ExecutorService grpcServerExecutor) {
+        return serverBuilder -> serverBuilder.executor(grpcServerExecutor);
+    }
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    @ConditionalOnExpression("'${grpc.server.executor.mode:default}'.toLowerCase() == 'bounded'")
+    public CallAdmissionInterceptor callAdmissionInterceptor(GrpcServerExecutorProperties properties, DataSource dataSource) {
+        return new CallAdmissionInterceptor(this.workerThreads(properties, dataSource) + properties.getQueueCapacity());
+    }
+
+    private int workerThreads(GrpcServerExecutorProperties properties, DataSource dataSource) {
+        return DataSourcePools.sizeOr(properties.getThreads(), dataSource);
+    }
+
+    private ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("grpc.server.executor.mode=virtual requires JDK 21 or later", e);
+        }
+    }
+}
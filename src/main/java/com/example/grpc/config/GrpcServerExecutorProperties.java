@@ -0,0 +1,26 @@
+package com.example.grpc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "grpc.server.executor")
+public class GrpcServerExecutorProperties {
+    private Mode mode = Mode.DEFAULT;
+
+    /**
+     * Worker threads of the bounded executor; zero or less matches the datasource pool size.
+     */
+    private int threads = 0;
+
+    /**
+     * Calls allowed to wait for a worker before new calls are rejected with RESOURCE_EXHAUSTED.
+     */
+    private int queueCapacity = 100;
+
+    public enum Mode {
+        DEFAULT,
+        BOUNDED,
+        VIRTUAL
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.grpc.config;
+
+import com.example.grpc.resource.interceptor.IdempotencyKeyInterceptor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GrpcServerIdempotencyConfiguration {
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    public IdempotencyKeyInterceptor idempotencyKeyInterceptor() {
+        return new IdempotencyKeyInterceptor();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.grpc.config;
+
+import com.example.grpc.resource.interceptor.MetricsServerInterceptor;
+import com.example.grpc.startup.ProductWarmup;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+public class GrpcServerMetricsConfiguration {
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public MetricsServerInterceptor metricsServerInterceptor(MeterRegistry meterRegistry) {
+        return new MetricsServerInterceptor(meterRegistry, ProductWarmup.WARMUP_HEADER);
+    }
+}
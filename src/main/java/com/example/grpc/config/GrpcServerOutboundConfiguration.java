@@ -0,0 +1,28 @@
+package com.example.grpc.config;
+
+import com.example.grpc.resource.interceptor.OutboundMessageInterceptor;
+import com.example.grpc.resource.interceptor.ReturnPreferenceInterceptor;
+import io.grpc.CompressorRegistry;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GrpcServerOutboundConfiguration {
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    public OutboundMessageInterceptor outboundMessageInterceptor(GrpcServerOutboundProperties properties,
+                                                                 CompressorRegistry compressorRegistry) {
+        var compression = properties.getCompression();
+        return new OutboundMessageInterceptor(compression.getCodec(), compression.getMethods(),
+                (int) compression.getMinMessageSize().toBytes(), (int) properties.getMaxMessageSize().toBytes(),
+                compressorRegistry);
+    }
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    public ReturnPreferenceInterceptor returnPreferenceInterceptor() {
+        return new ReturnPreferenceInterceptor();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.grpc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "grpc.server.outbound")
+public class GrpcServerOutboundProperties {
+    /**
+     * Largest response message the server sends; calls producing a bigger one fail with RESOURCE_EXHAUSTED.
+     */
+    private DataSize maxMessageSize = DataSize.ofMegabytes(4);
+
+    private Compression compression = new Compression();
+
+    @Data
+    public static class Compression {
+        /**
+         * Codec used for responses of methods without an override; "identity" disables compression.
+         */
+        private String codec = "identity";
+
+        /**
+         * Responses smaller than this are sent uncompressed.
+         */
+        private DataSize minMessageSize = DataSize.ofKilobytes(1);
+
+        /**
+         * Codec per method, keyed by bare ("FindAll") or full ("[com.example.grpc.ProductService/FindAll]") name.
+         */
+        private Map<String, String> methods = new HashMap<>();
+    }
+}
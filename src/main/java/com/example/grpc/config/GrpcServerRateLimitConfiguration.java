@@ -0,0 +1,45 @@
+package com.example.grpc.config;
+
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.resource.interceptor.RateLimitInterceptor;
+import com.example.grpc.startup.ProductWarmup;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Configuration
+@ConditionalOnProperty(prefix = "grpc.server.rate-limit", name = "enabled", havingValue = "true")
+public class GrpcServerRateLimitConfiguration {
+
+    /**
+     * Runs right inside the metrics interceptor, so rejected calls are counted but cost nothing else.
+     */
+    @Bean
+    @GrpcGlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public RateLimitInterceptor rateLimitInterceptor(GrpcServerRateLimitProperties properties) {
+        var concurrency = properties.getConcurrency();
+        return new RateLimitInterceptor(properties.getClientIdHeader(), this.toLimit(properties.getDefaults()),
+                properties.getMethods().entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> this.toLimit(entry.getValue()))),
+                properties.getMaxClients(), properties.getClientIdleTimeout(),
+                concurrency.isEnabled()
+                        ? new RateLimitInterceptor.AdaptiveConcurrency(concurrency.getInitialLimit(),
+                        concurrency.getMinLimit(), concurrency.getMaxLimit(), concurrency.getLatencyThreshold(),
+                        concurrency.getBackoffRatio(), concurrency.getRetryAfter(),
+                        Set.of(ProductServiceGrpc.SERVICE_NAME))
+                        : null,
+                ProductWarmup.WARMUP_HEADER);
+    }
+
+    private RateLimitInterceptor.Limit toLimit(GrpcServerRateLimitProperties.Limit limit) {
+        return new RateLimitInterceptor.Limit(limit.getPermitsPerSecond(), limit.getBurst());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.grpc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "grpc.server.rate-limit")
+public class GrpcServerRateLimitProperties {
+    private boolean enabled = false;
+
+    /**
+     * Header identifying the client; calls without it are limited per peer address.
+     */
+    private String clientIdHeader = "x-client-id";
+
+    /**
+     * Limit of methods without an override; a rate of zero leaves them unlimited.
+     */
+    private Limit defaults = new Limit();
+
+    /**
+     * Limit per method, keyed by bare ("FindAll") or full ("com.example.grpc.ProductService/FindAll") name.
+     */
+    private Map<String, Limit> methods = new HashMap<>();
+
+    /**
+     * Clients tracked per method; the least recently seen are forgotten first.
+     */
+    private long maxClients = 10_000;
+
+    private Duration clientIdleTimeout = Duration.ofMinutes(10);
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class Limit {
+        private double permitsPerSecond = 0;
+
+        /**
+         * Calls a client may make at once after being idle.
+         */
+        private int burst = 1;
+    }
+
+    /**
+     * AIMD limit on concurrent unary calls: grows by one while calls finish under the latency threshold and is cut
+     * by the backoff ratio when a call is slower or times out, at most once per window of calls admitted since the
+     * previous cut. Calls cancelled by the client are not counted.
+     */
+    @Data
+    public static class Concurrency {
+        private boolean enabled = false;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        private int maxLimit = 200;
+
+        private Duration latencyThreshold = Duration.ofMillis(250);
+
+        private double backoffRatio = 0.9;
+
+        /**
+         * Pushback sent with calls shed by the concurrency limit.
+         */
+        private Duration retryAfter = Duration.ofMillis(100);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.grpc.config;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.callback.BaseCallback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+/**
+ * Stops the migration before V3 adds {@code ux_product_normalized_name} when names already collide ignoring case,
+ * listing them so they can be renamed or merged first.
+ */
+public class NormalizedNameDuplicatesCheck extends BaseCallback {
+    static final MigrationVersion NORMALIZED_NAME_VERSION = MigrationVersion.fromVersion("3");
+
+    private static final String DUPLICATES_QUERY = "SELECT LOWER(name), COUNT(*) FROM product "
+            + "GROUP BY LOWER(name) HAVING COUNT(*) > 1 ORDER BY LOWER(name)";
+
+    private static final int LISTED_DUPLICATES = 20;
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_EACH_MIGRATE
+                && NORMALIZED_NAME_VERSION.equals(context.getMigrationInfo().getVersion());
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        var duplicates = new ArrayList<String>();
+        try (var statement = context.getConnection().createStatement();
+             var rows = statement.executeQuery(DUPLICATES_QUERY)) {
+            while (rows.next() && duplicates.size() < LISTED_DUPLICATES) {
+                duplicates.add(rows.getString(1) + " (" + rows.getLong(2) + ")");
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Falha ao procurar nomes de produto duplicados.", e);
+        }
+        if (!duplicates.isEmpty()) {
+            throw new FlywayException("Nomes de produto repetidos ignorando maiúsculas e minúsculas impedem a migração "
+                    + NORMALIZED_NAME_VERSION + "; renomeie ou remova antes de migrar: " + String.join(", ", duplicates));
+        }
+    }
+}
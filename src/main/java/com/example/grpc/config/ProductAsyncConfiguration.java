@@ -0,0 +1,34 @@
+package com.example.grpc.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ProductAsyncConfiguration {
+
+    /**
+     * Fixed pool with a bounded queue: once it is full, {@code execute} throws {@link RejectedExecutionException}
+     * instead of letting calls pile up behind a slow database.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService productQueryExecutor(ProductProperties productProperties, DataSource dataSource) {
+        var async = productProperties.getAsync();
+        var threads = DataSourcePools.sizeOr(async.getThreads(), dataSource);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(async.getQueueCapacity()), new CustomizableThreadFactory("product-query-"));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService productWatchExecutor() {
+        return Executors.newSingleThreadExecutor(new CustomizableThreadFactory("product-watch-"));
+    }
+}
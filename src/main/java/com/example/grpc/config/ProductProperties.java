@@ -0,0 +1,132 @@
+package com.example.grpc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "product")
+public class ProductProperties {
+    private final Batch batch = new Batch();
+
+    private final Cache cache = new Cache();
+
+    private final Async async = new Async();
+
+    private final Watch watch = new Watch();
+
+    private final Stock stock = new Stock();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Snapshot snapshot = new Snapshot();
+
+    private final Warmup warmup = new Warmup();
+
+    @Data
+    public static class Batch {
+        private int size = 500;
+    }
+
+    @Data
+    public static class Cache {
+        private long maximumSize = 10_000;
+
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Async {
+        /**
+         * Threads running blocking repository calls; zero or less matches the datasource pool size.
+         */
+        private int threads = 0;
+
+        /**
+         * Repository calls allowed to wait for a thread before new calls are rejected with RESOURCE_EXHAUSTED.
+         */
+        private int queueCapacity = 1000;
+    }
+
+    @Data
+    public static class Watch {
+        /**
+         * Events buffered per watcher; a watcher falling further behind is disconnected.
+         */
+        private int bufferSize = 1024;
+
+        /**
+         * Latest events retained for watchers resuming from a revision.
+         */
+        private int historySize = 10_000;
+
+        private int snapshotChunkSize = 500;
+    }
+
+    @Data
+    public static class Stock {
+        /**
+         * Products whose stock adjustments are coalesced in memory and flushed periodically. Their adjustments are
+         * acknowledged before being written and are not checked against the stock one by one: a flush drops only
+         * the part of a net decrement that exceeds the stock.
+         */
+        private Set<Long> hotIds = new HashSet<>();
+
+        private Duration flushInterval = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class Idempotency {
+        /**
+         * Create responses remembered by idempotency key; a retry arriving after eviction is treated as a new create.
+         */
+        private long maximumSize = 100_000;
+
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Snapshot {
+        /**
+         * Keeps the whole catalog in memory, already serialized, and serves FindAll from it. Changes made through
+         * the service apply right away; others (hot stock flushes, direct SQL) show up on the next reconcile.
+         */
+        private boolean enabled = false;
+
+        private Duration reconcileInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Warmup {
+        /**
+         * Runs synthetic calls before the gRPC health service reports SERVING; when disabled it reports SERVING as
+         * soon as the application has started.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Rounds of calls to every read method; each round also probes the write methods with an unknown id.
+         */
+        private int iterations = 500;
+
+        /**
+         * Products loaded into the FindById cache before serving.
+         */
+        private int hotProducts = 1000;
+
+        /**
+         * File the ids held in the FindById cache are written to on shutdown and read back as the hottest products
+         * on the next start; without it (or on the first start) the first products by id are loaded.
+         */
+        private Path hotIdsFile;
+
+        /**
+         * Upper bound of the warm-up; the service reports SERVING once it is reached.
+         */
+        private Duration timeout = Duration.ofSeconds(60);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.grpc.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchemaConfiguration {
+
+    /**
+     * Picked up by Spring Boot's Flyway auto-configuration as a migration callback.
+     */
+    @Bean
+    public NormalizedNameDuplicatesCheck normalizedNameDuplicatesCheck() {
+        return new NormalizedNameDuplicatesCheck();
+    }
+}
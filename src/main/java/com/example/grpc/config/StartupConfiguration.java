@@ -0,0 +1,31 @@
+package com.example.grpc.config;
+
+import com.example.grpc.catalog.CatalogSnapshot;
+import com.example.grpc.resource.interceptor.FirstCallInterceptor;
+import com.example.grpc.startup.ProductWarmup;
+import com.example.grpc.startup.StartupTimelineReporter;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfiguration {
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    public FirstCallInterceptor firstCallInterceptor(StartupTimelineReporter startupTimelineReporter) {
+        return new FirstCallInterceptor(startupTimelineReporter::firstCallCompleted, ProductWarmup.WARMUP_HEADER);
+    }
+
+    /**
+     * Kept eager under {@code spring.main.lazy-initialization} so the schema is migrated and the catalog snapshot
+     * loaded before the application is ready, not on the first call; the warm-up reports the health status.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class, CatalogSnapshot.class,
+                ProductWarmup.class);
+    }
+}
@@ -5,27 +5,61 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
+import java.util.Locale;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Product.NORMALIZED_NAME_CONSTRAINT, columnNames = "normalized_name"),
+        indexes = {
+                @Index(name = "ix_product_price", columnList = "price"),
+                @Index(name = "ix_product_quantity_in_stock", columnList = "quantityInStock")
+        })
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 public class Product {
+    public static final String NORMALIZED_NAME_CONSTRAINT = "ux_product_normalized_name";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName;
+
     private Double price;
 
     private Integer quantityInStock;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        this.normalizedName = normalize(this.name);
+    }
+
     public Long getId() {
         return id;
     }
@@ -34,6 +68,10 @@ public class Product {
         return name;
     }
 
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
     public Double getPrice() {
         return price;
     }
@@ -41,4 +79,8 @@ public class Product {
     public Integer getQuantityInStock() {
         return quantityInStock;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
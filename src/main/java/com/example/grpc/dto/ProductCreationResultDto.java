@@ -0,0 +1,31 @@
+package com.example.grpc.dto;
+
+import com.example.grpc.service.exception.BaseBusinessException;
+import lombok.Data;
+
+@Data
+public class ProductCreationResultDto {
+    private final ProductOutputDto product;
+
+    private final BaseBusinessException error;
+
+    public static ProductCreationResultDto created(ProductOutputDto product) {
+        return new ProductCreationResultDto(product, null);
+    }
+
+    public static ProductCreationResultDto failed(BaseBusinessException error) {
+        return new ProductCreationResultDto(null, error);
+    }
+
+    public boolean isCreated() {
+        return error == null;
+    }
+
+    public ProductOutputDto getProduct() {
+        return product;
+    }
+
+    public BaseBusinessException getError() {
+        return error;
+    }
+}
@@ -15,7 +15,9 @@ public class ProductOutputDto {
     private final Double price;
 
     private final Integer quantityInStock;
-    
+
+    private final Long version;
+
     public Long getId() {
         return id;
     }
@@ -32,4 +34,8 @@ public class ProductOutputDto {
         return quantityInStock;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
 }
@@ -0,0 +1,58 @@
+package com.example.grpc.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductSearchDto {
+    private final String namePrefix;
+
+    private final String nameContains;
+
+    private final Double minPrice;
+
+    private final Double maxPrice;
+
+    private final Integer maxQuantityInStock;
+
+    @Builder.Default
+    private final Sort sort = Sort.ID;
+
+    private final boolean descending;
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public String getNameContains() {
+        return nameContains;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Integer getMaxQuantityInStock() {
+        return maxQuantityInStock;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public enum Sort {
+        ID,
+        NAME,
+        PRICE,
+        QUANTITY_IN_STOCK
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.grpc.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A partial update: null fields are left unchanged, and a null expected version skips the version check.
+ */
+@Data
+@Builder
+public class ProductUpdateDto {
+    private final Long id;
+
+    private final String name;
+
+    private final Double price;
+
+    private final Long expectedVersion;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.grpc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StockAdjustmentDto {
+    private final Long id;
+
+    private final int delta;
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+}
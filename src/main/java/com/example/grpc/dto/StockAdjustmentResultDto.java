@@ -0,0 +1,31 @@
+package com.example.grpc.dto;
+
+import com.example.grpc.service.exception.BaseBusinessException;
+import lombok.Data;
+
+@Data
+public class StockAdjustmentResultDto {
+    private final StockLevelDto stockLevel;
+
+    private final BaseBusinessException error;
+
+    public static StockAdjustmentResultDto adjusted(StockLevelDto stockLevel) {
+        return new StockAdjustmentResultDto(stockLevel, null);
+    }
+
+    public static StockAdjustmentResultDto failed(BaseBusinessException error) {
+        return new StockAdjustmentResultDto(null, error);
+    }
+
+    public boolean isAdjusted() {
+        return error == null;
+    }
+
+    public StockLevelDto getStockLevel() {
+        return stockLevel;
+    }
+
+    public BaseBusinessException getError() {
+        return error;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.grpc.dto;
+
+import lombok.Data;
+
+@Data
+public class StockLevelDto {
+    private final Long id;
+
+    private final Integer quantityInStock;
+
+    private final boolean deferred;
+
+    public static StockLevelDto of(Long id, Integer quantityInStock) {
+        return new StockLevelDto(id, quantityInStock, false);
+    }
+
+    public static StockLevelDto deferred(Long id) {
+        return new StockLevelDto(id, null, true);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getQuantityInStock() {
+        return quantityInStock;
+    }
+
+    public boolean isDeferred() {
+        return deferred;
+    }
+}
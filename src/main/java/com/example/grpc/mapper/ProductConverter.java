@@ -20,6 +20,7 @@ public class ProductConverter {
                 .name(product.getName())
                 .price(product.getPrice())
                 .quantityInStock(product.getQuantityInStock())
+                .version(product.getVersion())
                 .build();
     }
 }
@@ -1,12 +1,42 @@
 package com.example.grpc.repository;
 
 import com.example.grpc.domain.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import javax.persistence.LockModeType;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    Optional<Product> findByNameIgnoreCase(String name);
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select p.normalizedName from Product p where p.normalizedName in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    /**
+     * Single statement delete; unlike {@link #deleteById(Object)} the entity is not loaded first.
+     */
+    @Modifying
+    @Query("delete from Product p where p.id = :id")
+    int deleteProductById(@Param("id") Long id);
+
+    /**
+     * Locks the rows a following {@link #deleteAllProductsById(Collection)} will remove, so the ids reported as
+     * deleted are exactly the rows it deleted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Product p where p.id in :ids")
+    int deleteAllProductsById(@Param("ids") Collection<Long> ids);
 }
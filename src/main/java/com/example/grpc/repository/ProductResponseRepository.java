@@ -0,0 +1,116 @@
+package com.example.grpc.repository;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.domain.Product;
+import com.example.grpc.dto.ProductSearchDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only list and search queries mapped by JDBC straight into {@link ProductResponse}, bypassing the persistence context
+ * (no managed entities, no dirty-checking snapshots, no intermediate DTO).
+ */
+@Repository
+public class ProductResponseRepository {
+    private static final String FIND_PAGE_SQL =
+            "select id, name, price, quantity_in_stock, version from product where id > ? order by id limit ?";
+
+    private static final RowMapper<ProductResponse> PRODUCT_RESPONSE_MAPPER = (rs, rowNum) -> ProductResponse.newBuilder()
+            .setId(rs.getLong(1))
+            .setName(rs.getString(2))
+            .setPrice(rs.getDouble(3))
+            .setQuantityInStock(rs.getInt(4))
+            .setVersion(rs.getLong(5))
+            .build();
+
+    private static final Map<ProductSearchDto.Sort, String> SORT_COLUMNS = Map.of(
+            ProductSearchDto.Sort.ID, "id",
+            ProductSearchDto.Sort.NAME, "normalized_name",
+            ProductSearchDto.Sort.PRICE, "price",
+            ProductSearchDto.Sort.QUANTITY_IN_STOCK, "quantity_in_stock");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductResponseRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<ProductResponse> findByIdGreaterThanOrderByIdAsc(long id, int limit) {
+        return this.jdbcTemplate.query(FIND_PAGE_SQL, PRODUCT_RESPONSE_MAPPER, id, limit);
+    }
+
+    /**
+     * Reads the next {@code limit} matches after {@code after} (null for the first chunk), seeking on the sort
+     * column and id so every chunk is an index range scan instead of an offset.
+     */
+    public List<ProductResponse> search(ProductSearchDto criteria, ProductResponse after, int limit) {
+        var sql = new StringBuilder("select id, name, price, quantity_in_stock, version from product where 1 = 1");
+        var parameters = new ArrayList<>();
+        if (StringUtils.hasText(criteria.getNamePrefix())) {
+            sql.append(" and normalized_name like ? escape '\\'");
+            parameters.add(this.escapeLike(Product.normalize(criteria.getNamePrefix())) + "%");
+        }
+        if (StringUtils.hasText(criteria.getNameContains())) {
+            sql.append(" and normalized_name like ? escape '\\'");
+            parameters.add("%" + this.escapeLike(Product.normalize(criteria.getNameContains())) + "%");
+        }
+        if (criteria.getMinPrice() != null) {
+            sql.append(" and price >= ?");
+            parameters.add(criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            sql.append(" and price <= ?");
+            parameters.add(criteria.getMaxPrice());
+        }
+        if (criteria.getMaxQuantityInStock() != null) {
+            sql.append(" and quantity_in_stock <= ?");
+            parameters.add(criteria.getMaxQuantityInStock());
+        }
+
+        var column = SORT_COLUMNS.get(criteria.getSort());
+        var comparison = criteria.isDescending() ? " < " : " > ";
+        var direction = criteria.isDescending() ? " desc" : " asc";
+        if (after != null) {
+            if (criteria.getSort() == ProductSearchDto.Sort.ID) {
+                sql.append(" and id").append(comparison).append("?");
+            } else {
+                var sortKey = this.sortKey(criteria.getSort(), after);
+                sql.append(" and (").append(column).append(comparison).append("? or (")
+                        .append(column).append(" = ? and id").append(comparison).append("?))");
+                parameters.add(sortKey);
+                parameters.add(sortKey);
+            }
+            parameters.add(after.getId());
+        }
+        if (criteria.getSort() != ProductSearchDto.Sort.ID) {
+            sql.append(" order by ").append(column).append(direction).append(", id").append(direction);
+        } else {
+            sql.append(" order by id").append(direction);
+        }
+        sql.append(" limit ?");
+        parameters.add(limit);
+
+        return this.jdbcTemplate.query(sql.toString(), PRODUCT_RESPONSE_MAPPER, parameters.toArray());
+    }
+
+    private Object sortKey(ProductSearchDto.Sort sort, ProductResponse product) {
+        switch (sort) {
+            case NAME:
+                return Product.normalize(product.getName());
+            case PRICE:
+                return product.getPrice();
+            default:
+                return product.getQuantityInStock();
+        }
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.grpc.repository;
+
+import com.example.grpc.dto.StockAdjustmentDto;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stock changes as single conditional statements: the row is only updated when the stock stays non-negative,
+ * so concurrent adjustments never lose updates nor need the entity to be loaded.
+ */
+@Repository
+public class ProductStockRepository {
+    private static final String ADJUST_SQL = "update product set quantity_in_stock = quantity_in_stock + :delta "
+            + "where id = :id and quantity_in_stock + :delta >= 0";
+
+    private static final String LOCK_QUANTITY_SQL = "select quantity_in_stock from product where id = :id for update";
+
+    private static final String FIND_QUANTITIES_SQL = "select id, quantity_in_stock from product where id in (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductStockRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean adjust(Long id, int delta) {
+        return this.jdbcTemplate.update(ADJUST_SQL, this.parameters(id, delta)) > 0;
+    }
+
+    public int[] adjustAll(List<StockAdjustmentDto> adjustments) {
+        var parameters = adjustments.stream()
+                .map(adjustment -> this.parameters(adjustment.getId(), adjustment.getDelta()))
+                .toArray(MapSqlParameterSource[]::new);
+        return this.jdbcTemplate.batchUpdate(ADJUST_SQL, parameters);
+    }
+
+    public Optional<Integer> findQuantityInStock(Long id) {
+        return Optional.ofNullable(this.findQuantitiesInStock(List.of(id)).get(id));
+    }
+
+    /**
+     * Reads the stock and locks the row until the surrounding transaction ends.
+     */
+    public Optional<Integer> lockQuantityInStock(Long id) {
+        return this.jdbcTemplate.queryForList(LOCK_QUANTITY_SQL, new MapSqlParameterSource("id", id), Integer.class)
+                .stream()
+                .findFirst();
+    }
+
+    public Map<Long, Integer> findQuantitiesInStock(Collection<Long> ids) {
+        var quantities = new HashMap<Long, Integer>();
+        this.jdbcTemplate.query(FIND_QUANTITIES_SQL, Map.of("ids", ids),
+                (RowCallbackHandler) rs -> quantities.put(rs.getLong(1), rs.getInt(2)));
+        return quantities;
+    }
+
+    private MapSqlParameterSource parameters(Long id, int delta) {
+        return new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("delta", delta);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.grpc.repository;
+
+import com.example.grpc.domain.Product;
+import com.example.grpc.dto.ProductUpdateDto;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Partial updates as a single UPDATE of only the changed columns, guarded by the expected version instead of a row
+ * lock held across a read: a stale writer updates no row and the caller reports the conflict.
+ */
+@Repository
+public class ProductUpdateRepository {
+    private static final String FIND_VERSION_SQL = "select version from product where id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductUpdateRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean update(ProductUpdateDto productUpdateDto) {
+        var sql = new StringBuilder("update product set version = version + 1");
+        var parameters = new MapSqlParameterSource("id", productUpdateDto.getId());
+        if (productUpdateDto.getName() != null) {
+            sql.append(", name = :name, normalized_name = :normalizedName");
+            parameters.addValue("name", productUpdateDto.getName())
+                    .addValue("normalizedName", Product.normalize(productUpdateDto.getName()));
+        }
+        if (productUpdateDto.getPrice() != null) {
+            sql.append(", price = :price");
+            parameters.addValue("price", productUpdateDto.getPrice());
+        }
+        sql.append(" where id = :id");
+        if (productUpdateDto.getExpectedVersion() != null) {
+            sql.append(" and version = :version");
+            parameters.addValue("version", productUpdateDto.getExpectedVersion());
+        }
+        return this.jdbcTemplate.update(sql.toString(), parameters) > 0;
+    }
+
+    public Optional<Long> findVersion(Long id) {
+        return this.jdbcTemplate.queryForList(FIND_VERSION_SQL, new MapSqlParameterSource("id", id), Long.class)
+                .stream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.grpc.resource;
+
+import com.example.grpc.CreateResult;
+import com.example.grpc.ErrorStatus;
+import com.example.grpc.ProductRequest;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.dto.ProductCreationResultDto;
+import com.example.grpc.dto.ProductInputDto;
+import com.example.grpc.resource.handler.ExceptionHandler;
+import com.example.grpc.service.ProductAsyncService;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Groups inbound products into batches and creates each batch asynchronously. Inbound messages are
+ * requested one batch at a time, so the client is back-pressured while a batch is being written.
+ */
+final class BatchingCreateObserver implements StreamObserver<ProductRequest> {
+    private final ServerCallStreamObserver<?> responseObserver;
+
+    private final ProductAsyncService productAsyncService;
+
+    private final int batchSize;
+
+    private final Consumer<List<CreateResult>> onBatch;
+
+    private final Runnable onFinish;
+
+    private List<ProductInputDto> pending;
+
+    private long nextIndex;
+
+    private boolean flushing;
+
+    private boolean halfClosed;
+
+    private boolean terminated;
+
+    BatchingCreateObserver(ServerCallStreamObserver<?> responseObserver, ProductAsyncService productAsyncService,
+                           int batchSize, Consumer<List<CreateResult>> onBatch, Runnable onFinish) {
+        this.responseObserver = responseObserver;
+        this.productAsyncService = productAsyncService;
+        this.batchSize = batchSize;
+        this.onBatch = onBatch;
+        this.onFinish = onFinish;
+        this.pending = new ArrayList<>(batchSize);
+
+        responseObserver.setOnCancelHandler(this::cancel);
+        responseObserver.disableAutoRequest();
+        responseObserver.request(batchSize);
+    }
+
+    @Override
+    public synchronized void onNext(ProductRequest request) {
+        if (this.terminated) {
+            return;
+        }
+        this.pending.add(ProductInputDto.builder()
+                .name(request.getName())
+                .price(request.getPrice())
+                .quantityInStock(request.getQuantityInStock())
+                .build());
+        if (this.pending.size() >= this.batchSize) {
+            this.flush();
+        }
+    }
+
+    @Override
+    public synchronized void onError(Throwable t) {
+        this.cancel();
+    }
+
+    @Override
+    public synchronized void onCompleted() {
+        this.halfClosed = true;
+        if (!this.flushing) {
+            this.flushOrFinish();
+        }
+    }
+
+    private synchronized void cancel() {
+        this.terminated = true;
+        this.pending.clear();
+    }
+
+    private void flushOrFinish() {
+        if (this.pending.isEmpty()) {
+            this.terminated = true;
+            this.onFinish.run();
+        } else {
+            this.flush();
+        }
+    }
+
+    private void flush() {
+        var batch = this.pending;
+        var firstIndex = this.nextIndex;
+        this.pending = new ArrayList<>(this.batchSize);
+        this.nextIndex += batch.size();
+        this.flushing = true;
+        this.productAsyncService.createAll(batch)
+                .whenComplete((creationResults, error) -> this.onFlushed(batch, firstIndex, creationResults, error));
+    }
+
+    private synchronized void onFlushed(List<ProductInputDto> batch, long firstIndex,
+                                        List<ProductCreationResultDto> creationResults, Throwable error) {
+        this.flushing = false;
+        if (this.terminated || this.responseObserver.isCancelled()) {
+            return;
+        }
+        if (error != null) {
+            this.terminated = true;
+            this.responseObserver.onError(ExceptionHandler.toStatusRuntimeException(error));
+            return;
+        }
+
+        var results = new ArrayList<CreateResult>(creationResults.size());
+        for (int i = 0; i < creationResults.size(); i++) {
+            results.add(this.toCreateResult(firstIndex + i, batch.get(i), creationResults.get(i)));
+        }
+        this.onBatch.accept(results);
+
+        if (this.halfClosed) {
+            this.flushOrFinish();
+        } else {
+            this.responseObserver.request(this.batchSize);
+        }
+    }
+
+    private CreateResult toCreateResult(long index, ProductInputDto productInputDto, ProductCreationResultDto creationResult) {
+        var createResult = CreateResult.newBuilder().setIndex(index);
+        if (creationResult.isCreated()) {
+            return createResult.setProduct(ProductResponse.newBuilder()
+                            .setId(creationResult.getProduct().getId())
+                            .setName(productInputDto.getName())
+                            .setPrice(productInputDto.getPrice())
+                            .setQuantityInStock(productInputDto.getQuantityInStock())
+                            .setVersion(creationResult.getProduct().getVersion()))
+                    .build();
+        }
+        var error = creationResult.getError();
+        return createResult.setError(ErrorStatus.newBuilder()
+                        .setCode(error.getStatusCode().getCode().value())
+                        .setMessage(error.getErrorMessage()))
+                .build();
+    }
+}
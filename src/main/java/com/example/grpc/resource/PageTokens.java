@@ -0,0 +1,34 @@
+package com.example.grpc.resource;
+
+import com.example.grpc.service.exception.InvalidPageTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+final class PageTokens {
+    private static final long FIRST_PAGE = 0L;
+
+    private PageTokens() {
+    }
+
+    static String encode(Long lastId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decode(String pageToken) {
+        if (pageToken.isEmpty()) {
+            return FIRST_PAGE;
+        }
+        try {
+            var lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8));
+            if (lastId < FIRST_PAGE) {
+                throw new InvalidPageTokenException(pageToken);
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageTokenException(pageToken);
+        }
+    }
+}
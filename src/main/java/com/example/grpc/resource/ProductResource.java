@@ -1,21 +1,77 @@
 package com.example.grpc.resource;
 
 import com.example.grpc.*;
+import com.example.grpc.cache.IdempotentResponseCache;
+import com.example.grpc.cache.ProductResponseCache;
+import com.example.grpc.catalog.CatalogSnapshot;
+import com.example.grpc.config.ProductProperties;
 import com.example.grpc.dto.ProductInputDto;
 import com.example.grpc.dto.ProductOutputDto;
-import com.example.grpc.service.ProductService;
+import com.example.grpc.dto.ProductSearchDto;
+import com.example.grpc.dto.ProductUpdateDto;
+import com.example.grpc.dto.StockAdjustmentDto;
+import com.example.grpc.dto.StockLevelDto;
+import com.example.grpc.resource.handler.ExceptionHandler;
+import com.example.grpc.resource.interceptor.IdempotencyKeyInterceptor;
+import com.example.grpc.resource.interceptor.ReturnPreferenceInterceptor;
+import com.example.grpc.service.ProductAsyncService;
+import com.example.grpc.service.exception.BaseBusinessException;
+import com.example.grpc.service.exception.InvalidUpdateMaskException;
+import com.example.grpc.service.exception.NotFoundException;
+import com.example.grpc.watch.ProductEventLog;
+import io.grpc.Context;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
-import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-@GrpcService
+@Component
 public class ProductResource extends ProductServiceGrpc.ProductServiceImplBase {
-    private final ProductService productService;
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
-    public ProductResource(ProductService productService) {
-        this.productService = productService;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String UPDATE_MASK_NAME = "name";
+
+    private static final String UPDATE_MASK_PRICE = "price";
+
+    private final ProductAsyncService productAsyncService;
+
+    private final ProductProperties productProperties;
+
+    private final ProductResponseCache productResponseCache;
+
+    private final IdempotentResponseCache idempotentResponseCache;
+
+    private final ProductEventLog productEventLog;
+
+    private final ExecutorService productWatchExecutor;
+
+    private final CatalogSnapshot catalogSnapshot;
+
+    public ProductResource(ProductAsyncService productAsyncService, ProductProperties productProperties,
+                           ProductResponseCache productResponseCache, IdempotentResponseCache idempotentResponseCache,
+                           ProductEventLog productEventLog,
+                           @Qualifier("productWatchExecutor") ExecutorService productWatchExecutor,
+                           ObjectProvider<CatalogSnapshot> catalogSnapshot) {
+        this.productAsyncService = productAsyncService;
+        this.productProperties = productProperties;
+        this.productResponseCache = productResponseCache;
+        this.idempotentResponseCache = idempotentResponseCache;
+        this.productEventLog = productEventLog;
+        this.productWatchExecutor = productWatchExecutor;
+        this.catalogSnapshot = catalogSnapshot.getIfAvailable();
     }
 
     @Override
@@ -26,56 +82,392 @@ public class ProductResource extends ProductServiceGrpc.ProductServiceImplBase {
                 .quantityInStock(request.getQuantityInStock())
                 .build();
 
-        var productOutputDto = this.productService.create(productInputDto);
-        var productResponse = ProductResponse.newBuilder()
-                .setId(productOutputDto.getId())
-                .setName(productInputDto.getName())
-                .setPrice(productInputDto.getPrice())
-                .setQuantityInStock(productInputDto.getQuantityInStock())
-                .build();
-        responseObserver.onNext(productResponse);
-        responseObserver.onCompleted();
+        // the request fields are echoed back unless the client asked for only what the server assigned
+        Function<ProductResponse, ProductResponse> mapper = ReturnPreferenceInterceptor.RETURN_MINIMAL.get()
+                ? this::toAssignedFields
+                : Function.identity();
+        var idempotencyKey = IdempotencyKeyInterceptor.IDEMPOTENCY_KEY.get();
+        if (idempotencyKey == null) {
+            this.complete(this.create(productInputDto), responseObserver, mapper);
+            return;
+        }
+        var productResponse = this.idempotentResponseCache.getOrCreate(idempotencyKey, request,
+                () -> this.createDetached(productInputDto));
+
+        this.complete(productResponse, responseObserver, mapper);
     }
 
     @Override
     public void findById(RequestById request, StreamObserver<ProductResponse> responseObserver) {
         var productById = request.getId();
-        ProductOutputDto productOutputDto = this.productService.findById(productById);
-        ProductResponse productResponse = ProductResponse.newBuilder()
-                .setId(productOutputDto.getId())
-                .setName(productOutputDto.getName())
-                .setPrice(productOutputDto.getPrice())
-                .setQuantityInStock(productOutputDto.getQuantityInStock())
-                .build();
+        var productResponse = this.productResponseCache.get(productById, this::loadProductResponse);
 
-        responseObserver.onNext(productResponse);
-        responseObserver.onCompleted();
+        this.complete(productResponse, responseObserver, Function.identity());
+    }
+
+    @Override
+    public void findByIds(FindByIdsRequest request, StreamObserver<FindByIdsResponse> responseObserver) {
+        var ids = request.getIdsList();
+        var productResponses = this.productResponseCache.getAll(ids, this::loadProductResponses);
+
+        this.complete(productResponses, responseObserver, productResponseById -> {
+            var response = FindByIdsResponse.newBuilder();
+            ids.forEach(id -> {
+                var lookup = response.addResultsBuilder().setId(id);
+                var productResponse = productResponseById.get(id);
+                if (productResponse != null) {
+                    lookup.setProduct(productResponse);
+                } else {
+                    lookup.setError(this.toErrorStatus(new NotFoundException(id)));
+                }
+            });
+            return response.build();
+        });
+    }
+
+    @Override
+    public void update(UpdateProductRequest request, StreamObserver<ProductResponse> responseObserver) {
+        var productUpdateDto = this.toProductUpdateDto(request);
+        this.complete(this.productAsyncService.update(productUpdateDto), responseObserver, this::toProductResponse);
     }
 
     @Override
     public void delete(RequestById request, StreamObserver<EmptyResponse> responseObserver) {
         var productById = request.getId();
-        this.productService.delete(productById);
-        responseObserver.onNext(EmptyResponse.newBuilder().build());
-        responseObserver.onCompleted();
+        this.complete(this.productAsyncService.delete(productById), responseObserver,
+                deleted -> EmptyResponse.newBuilder().build());
+    }
+
+    @Override
+    public void deleteBatch(DeleteBatchRequest request, StreamObserver<DeleteBatchResponse> responseObserver) {
+        var ids = request.getIdsList();
+        this.complete(this.productAsyncService.deleteAllById(ids), responseObserver, deletedIds -> {
+            var deleted = new HashSet<>(deletedIds);
+            var response = DeleteBatchResponse.newBuilder().addAllDeletedIds(deletedIds);
+            ids.stream()
+                    .distinct()
+                    .filter(id -> !deleted.contains(id))
+                    .forEach(response::addNotFoundIds);
+            return response.build();
+        });
     }
 
     @Override
     public void findAll(EmptyRequest request, StreamObserver<ProductResponseList> responseObserver) {
-        List<ProductOutputDto> products = this.productService.findAll();
-        var productResponse = products.stream()
-                .map(i -> ProductResponse.newBuilder()
-                        .setId(i.getId())
-                        .setName(i.getName())
-                        .setPrice(i.getPrice())
-                        .setQuantityInStock(i.getQuantityInStock())
-                        .build())
+        this.complete(this.productAsyncService.findAll(), responseObserver, this::toProductResponseList);
+    }
+
+    /**
+     * FindAll served from the catalog snapshot's pre-serialized bytes; see {@link ProductServiceBinding}.
+     */
+    void findAllSerialized(EmptyRequest request, StreamObserver<SerializedMessage> responseObserver) {
+        var serializedProducts = this.catalogSnapshot.serializedProducts();
+        if (serializedProducts != null) {
+            responseObserver.onNext(new SerializedMessage(serializedProducts));
+            responseObserver.onCompleted();
+            return;
+        }
+        this.complete(this.productAsyncService.findAll(), responseObserver,
+                products -> new SerializedMessage(this.toProductResponseList(products).toByteArray()));
+    }
+
+    @Override
+    public void streamAll(StreamAllRequest request, StreamObserver<ProductResponseList> responseObserver) {
+        var serverCallStreamObserver = (ServerCallStreamObserver<ProductResponseList>) responseObserver;
+        var chunkSize = this.boundedPageSize(request.getChunkSize());
+        var cursor = new KeysetCursor(Context.current(), Long.MAX_VALUE,
+                (last, size) -> this.productAsyncService.findPage(last == null ? 0L : last.getId(), size));
+
+        serverCallStreamObserver.setOnCancelHandler(cursor::cancel);
+        serverCallStreamObserver.setOnReadyHandler(() -> this.drain(serverCallStreamObserver, cursor, chunkSize));
+    }
+
+    @Override
+    public void search(SearchRequest request, StreamObserver<ProductResponseList> responseObserver) {
+        var serverCallStreamObserver = (ServerCallStreamObserver<ProductResponseList>) responseObserver;
+        var chunkSize = this.boundedPageSize(request.getChunkSize());
+        var criteria = this.toProductSearchDto(request);
+        var cursor = new KeysetCursor(Context.current(), request.getLimit() > 0 ? request.getLimit() : Long.MAX_VALUE,
+                (last, size) -> this.productAsyncService.search(criteria, last, size));
+
+        serverCallStreamObserver.setOnCancelHandler(cursor::cancel);
+        serverCallStreamObserver.setOnReadyHandler(() -> this.drain(serverCallStreamObserver, cursor, chunkSize));
+    }
+
+    @Override
+    public void findPage(PageRequest request, StreamObserver<ProductPage> responseObserver) {
+        var afterId = PageTokens.decode(request.getPageToken());
+        var pageSize = this.boundedPageSize(request.getPageSize());
+
+        this.complete(this.productAsyncService.findPage(afterId, pageSize), responseObserver, products -> {
+            var productPage = ProductPage.newBuilder().addAllProducts(products);
+            if (products.size() == pageSize) {
+                productPage.setNextPageToken(PageTokens.encode(products.get(products.size() - 1).getId()));
+            }
+            return productPage.build();
+        });
+    }
+
+    @Override
+    public StreamObserver<ProductRequest> createBatch(StreamObserver<CreateBatchResponse> responseObserver) {
+        var response = CreateBatchResponse.newBuilder();
+        return new BatchingCreateObserver((ServerCallStreamObserver<CreateBatchResponse>) responseObserver,
+                this.productAsyncService, this.productProperties.getBatch().getSize(),
+                results -> results.forEach(result -> {
+                    if (result.hasProduct()) {
+                        response.setCreatedCount(response.getCreatedCount() + 1);
+                    } else {
+                        response.addFailures(result);
+                    }
+                }),
+                () -> {
+                    responseObserver.onNext(response.build());
+                    responseObserver.onCompleted();
+                });
+    }
+
+    @Override
+    public StreamObserver<ProductRequest> createStream(StreamObserver<CreateResult> responseObserver) {
+        return new BatchingCreateObserver((ServerCallStreamObserver<CreateResult>) responseObserver,
+                this.productAsyncService, this.productProperties.getBatch().getSize(),
+                results -> results.forEach(responseObserver::onNext),
+                responseObserver::onCompleted);
+    }
+
+    @Override
+    public void adjustStock(AdjustStockRequest request, StreamObserver<StockLevel> responseObserver) {
+        this.complete(this.productAsyncService.adjustStock(request.getId(), request.getDelta()), responseObserver,
+                this::toStockLevel);
+    }
+
+    @Override
+    public void adjustStockBatch(AdjustStockBatchRequest request, StreamObserver<AdjustStockBatchResponse> responseObserver) {
+        var adjustments = request.getAdjustmentsList().stream()
+                .map(adjustment -> new StockAdjustmentDto(adjustment.getId(), adjustment.getDelta()))
                 .collect(Collectors.toList());
-        var result = ProductResponseList.newBuilder()
-                .addAllProducts(productResponse)
+
+        this.complete(this.productAsyncService.adjustStockAll(adjustments), responseObserver, results -> {
+            var response = AdjustStockBatchResponse.newBuilder();
+            for (int i = 0; i < results.size(); i++) {
+                var result = results.get(i);
+                var adjustStockResult = response.addResultsBuilder().setIndex(i);
+                if (result.isAdjusted()) {
+                    adjustStockResult.setStock(this.toStockLevel(result.getStockLevel()));
+                } else {
+                    adjustStockResult.setError(this.toErrorStatus(result.getError()));
+                }
+            }
+            return response.build();
+        });
+    }
+
+    @Override
+    public void watchProducts(WatchProductsRequest request, StreamObserver<ProductEvent> responseObserver) {
+        var watchProperties = this.productProperties.getWatch();
+        new ProductWatchSubscription((ServerCallStreamObserver<ProductEvent>) responseObserver, this.productAsyncService,
+                this.productEventLog, this.productWatchExecutor, watchProperties.getBufferSize(),
+                watchProperties.getSnapshotChunkSize())
+                .start(request.getResumeRevision());
+    }
+
+    private void drain(ServerCallStreamObserver<ProductResponseList> responseObserver, KeysetCursor cursor, int chunkSize) {
+        synchronized (cursor) {
+            if (cursor.done || cursor.fetching || responseObserver.isCancelled() || !responseObserver.isReady()) {
+                return;
+            }
+            cursor.fetching = true;
+        }
+
+        var size = (int) Math.min(chunkSize, cursor.remaining);
+        cursor.context.run(() -> cursor.nextChunk.apply(cursor.last, size)
+                .whenComplete((products, error) -> {
+                    synchronized (cursor) {
+                        cursor.fetching = false;
+                        if (cursor.done || responseObserver.isCancelled()) {
+                            return;
+                        }
+                        if (error != null) {
+                            cursor.done = true;
+                            responseObserver.onError(ExceptionHandler.toStatusRuntimeException(error));
+                            return;
+                        }
+                        if (!products.isEmpty()) {
+                            cursor.last = products.get(products.size() - 1);
+                            cursor.remaining -= products.size();
+                            responseObserver.onNext(this.toProductResponseList(products));
+                        }
+                        if (products.size() < size || cursor.remaining == 0) {
+                            cursor.done = true;
+                            responseObserver.onCompleted();
+                            return;
+                        }
+                    }
+                    this.drain(responseObserver, cursor, chunkSize);
+                }));
+    }
+
+    private CompletableFuture<ProductResponse> create(ProductInputDto productInputDto) {
+        return this.productAsyncService.create(productInputDto)
+                .thenApply(productOutputDto -> ProductResponse.newBuilder()
+                        .setId(productOutputDto.getId())
+                        .setName(productInputDto.getName())
+                        .setPrice(productInputDto.getPrice())
+                        .setQuantityInStock(productInputDto.getQuantityInStock())
+                        .setVersion(productOutputDto.getVersion())
+                        .build());
+    }
+
+    private CompletableFuture<ProductResponse> createDetached(ProductInputDto productInputDto) {
+        // a keyed create is shared with its retries, so it must not fail when the original call is cancelled
+        var detached = Context.current().fork();
+        var previous = detached.attach();
+        try {
+            return this.create(productInputDto);
+        } finally {
+            detached.detach(previous);
+        }
+    }
+
+    private CompletableFuture<ProductResponse> loadProductResponse(Long id) {
+        // cache loads are shared by concurrent callers, so one caller's cancellation must not fail the others
+        var detached = Context.current().fork();
+        var previous = detached.attach();
+        try {
+            return this.productAsyncService.findById(id).thenApply(this::toProductResponse);
+        } finally {
+            detached.detach(previous);
+        }
+    }
+
+    private CompletableFuture<Map<Long, ProductResponse>> loadProductResponses(Collection<Long> ids) {
+        var detached = Context.current().fork();
+        var previous = detached.attach();
+        try {
+            return this.productAsyncService.findAllById(ids).thenApply(products -> products.stream()
+                    .collect(Collectors.toMap(ProductOutputDto::getId, this::toProductResponse)));
+        } finally {
+            detached.detach(previous);
+        }
+    }
+
+    private <T, R> void complete(CompletableFuture<T> future, StreamObserver<R> responseObserver, Function<T, R> mapper) {
+        var serverCallStreamObserver = (ServerCallStreamObserver<R>) responseObserver;
+        future.whenComplete((result, error) -> {
+            if (serverCallStreamObserver.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                responseObserver.onError(ExceptionHandler.toStatusRuntimeException(error));
+                return;
+            }
+            responseObserver.onNext(mapper.apply(result));
+            responseObserver.onCompleted();
+        });
+    }
+
+    private ProductResponse toAssignedFields(ProductResponse productResponse) {
+        return ProductResponse.newBuilder()
+                .setId(productResponse.getId())
+                .setVersion(productResponse.getVersion())
+                .build();
+    }
+
+    private int boundedPageSize(int requestedSize) {
+        if (requestedSize <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requestedSize, MAX_PAGE_SIZE);
+    }
+
+    private ProductResponseList toProductResponseList(List<ProductResponse> products) {
+        return ProductResponseList.newBuilder()
+                .addAllProducts(products)
                 .build();
-        responseObserver.onNext(result);
-        responseObserver.onCompleted();
+    }
+
+    private ProductSearchDto toProductSearchDto(SearchRequest request) {
+        return ProductSearchDto.builder()
+                .namePrefix(request.getNamePrefix())
+                .nameContains(request.getNameContains())
+                .minPrice(request.hasMinPrice() ? request.getMinPrice().getValue() : null)
+                .maxPrice(request.hasMaxPrice() ? request.getMaxPrice().getValue() : null)
+                .maxQuantityInStock(request.hasMaxQuantityInStock() ? request.getMaxQuantityInStock().getValue() : null)
+                .sort(ProductSearchDto.Sort.valueOf(request.getSort() == SearchRequest.Sort.SORT_UNSPECIFIED
+                        ? SearchRequest.Sort.ID.name() : request.getSort().name()))
+                .descending(request.getDescending())
+                .build();
+    }
+
+    private ProductUpdateDto toProductUpdateDto(UpdateProductRequest request) {
+        var paths = request.getUpdateMask().getPathsList();
+        var product = request.getProduct();
+        var productUpdateDto = ProductUpdateDto.builder()
+                .id(request.getId())
+                .expectedVersion(request.hasExpectedVersion() ? request.getExpectedVersion().getValue() : null);
+        if (paths.isEmpty()) {
+            return productUpdateDto.name(product.getName()).price(product.getPrice()).build();
+        }
+        for (String path : paths) {
+            if (UPDATE_MASK_NAME.equals(path)) {
+                productUpdateDto.name(product.getName());
+            } else if (UPDATE_MASK_PRICE.equals(path)) {
+                productUpdateDto.price(product.getPrice());
+            } else {
+                throw new InvalidUpdateMaskException(path);
+            }
+        }
+        return productUpdateDto.build();
+    }
+
+    private StockLevel toStockLevel(StockLevelDto stockLevelDto) {
+        var stockLevel = StockLevel.newBuilder()
+                .setId(stockLevelDto.getId())
+                .setDeferred(stockLevelDto.isDeferred());
+        if (stockLevelDto.getQuantityInStock() != null) {
+            stockLevel.setQuantityInStock(stockLevelDto.getQuantityInStock());
+        }
+        return stockLevel.build();
+    }
+
+    private ErrorStatus toErrorStatus(BaseBusinessException error) {
+        return ErrorStatus.newBuilder()
+                .setCode(error.getStatusCode().getCode().value())
+                .setMessage(error.getErrorMessage())
+                .build();
+    }
+
+    private ProductResponse toProductResponse(ProductOutputDto productOutputDto) {
+        return ProductResponse.newBuilder()
+                .setId(productOutputDto.getId())
+                .setName(productOutputDto.getName())
+                .setPrice(productOutputDto.getPrice())
+                .setQuantityInStock(productOutputDto.getQuantityInStock())
+                .setVersion(productOutputDto.getVersion())
+                .build();
+    }
+
+    private static final class KeysetCursor {
+        private final Context context;
+
+        private final BiFunction<ProductResponse, Integer, CompletableFuture<List<ProductResponse>>> nextChunk;
+
+        private ProductResponse last;
+
+        private long remaining;
+
+        private boolean fetching;
+
+        private boolean done;
+
+        private KeysetCursor(Context context, long remaining,
+                             BiFunction<ProductResponse, Integer, CompletableFuture<List<ProductResponse>>> nextChunk) {
+            this.context = context;
+            this.remaining = remaining;
+            this.nextChunk = nextChunk;
+        }
 
+        private synchronized void cancel() {
+            this.done = true;
+        }
     }
 }
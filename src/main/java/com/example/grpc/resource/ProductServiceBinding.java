@@ -0,0 +1,55 @@
+package com.example.grpc.resource;
+
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.catalog.CatalogSnapshot;
+import io.grpc.BindableService;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.ServiceDescriptor;
+import io.grpc.stub.ServerCalls;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+
+/**
+ * Registers {@link ProductResource}. With the catalog snapshot enabled, FindAll is rebound with a pass-through
+ * response marshaller so the snapshot's pre-serialized bytes are written as they are; the generated
+ * {@code bindService()} is final, hence the separate binding.
+ */
+@GrpcService
+public class ProductServiceBinding implements BindableService {
+    private final ProductResource productResource;
+
+    private final boolean catalogSnapshotEnabled;
+
+    public ProductServiceBinding(ProductResource productResource, ObjectProvider<CatalogSnapshot> catalogSnapshot) {
+        this.productResource = productResource;
+        this.catalogSnapshotEnabled = catalogSnapshot.getIfAvailable() != null;
+    }
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        var definition = this.productResource.bindService();
+        if (!this.catalogSnapshotEnabled) {
+            return definition;
+        }
+        var findAllMethod = ProductServiceGrpc.getFindAllMethod().toBuilder(
+                ProductServiceGrpc.getFindAllMethod().getRequestMarshaller(), SerializedMessage.MARSHALLER).build();
+        var methods = new ArrayList<ServerMethodDefinition<?, ?>>();
+        for (var method : definition.getMethods()) {
+            if (method.getMethodDescriptor().getFullMethodName().equals(findAllMethod.getFullMethodName())) {
+                methods.add(ServerMethodDefinition.create(findAllMethod,
+                        ServerCalls.asyncUnaryCall(this.productResource::findAllSerialized)));
+            } else {
+                methods.add(method);
+            }
+        }
+        var serviceDescriptor = ServiceDescriptor.newBuilder(definition.getServiceDescriptor().getName())
+                .setSchemaDescriptor(definition.getServiceDescriptor().getSchemaDescriptor());
+        methods.forEach(method -> serviceDescriptor.addMethod(method.getMethodDescriptor()));
+        var builder = ServerServiceDefinition.builder(serviceDescriptor.build());
+        methods.forEach(builder::addMethod);
+        return builder.build();
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.grpc.resource;
+
+import com.example.grpc.ProductEvent;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.resource.handler.ExceptionHandler;
+import com.example.grpc.service.ProductAsyncService;
+import com.example.grpc.watch.ProductEventLog;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Streams one watcher's events: the snapshot, read page by page while the call is ready, then the changes buffered
+ * by the {@link ProductEventLog}. The snapshot reflects at least every change up to the revision taken when it
+ * starts; it is only subscribed to the log once the snapshot is sent, and the log replays the later changes from its
+ * history. The buffer is bounded; a watcher overflowing it is disconnected and can resume from the last revision it
+ * was sent. Everything sent to the observer runs on the single watch executor, one drain at a time.
+ */
+final class ProductWatchSubscription implements ProductEventLog.Subscriber {
+    private static final String ERROR_MESSAGE = "Assinante atrasado em mais de %s eventos; retome a partir da revisão %s.";
+
+    private final ServerCallStreamObserver<ProductEvent> responseObserver;
+
+    private final ProductAsyncService productAsyncService;
+
+    private final ProductEventLog productEventLog;
+
+    private final Executor watchExecutor;
+
+    private final Context context;
+
+    private final int bufferSize;
+
+    private final int snapshotChunkSize;
+
+    private final ArrayDeque<ProductEvent> buffer;
+
+    private long snapshotRevision = -1;
+
+    private long lastSentRevision;
+
+    private long snapshotLastId;
+
+    private Iterator<ProductResponse> snapshotChunk;
+
+    private boolean snapshotExhausted;
+
+    private boolean fetching;
+
+    // nothing is sent until start() knows whether the watcher resumes or starts from a snapshot
+    private boolean started;
+
+    private boolean drainScheduled;
+
+    private boolean lagging;
+
+    private boolean terminated;
+
+    ProductWatchSubscription(ServerCallStreamObserver<ProductEvent> responseObserver,
+                             ProductAsyncService productAsyncService, ProductEventLog productEventLog,
+                             Executor watchExecutor, int bufferSize, int snapshotChunkSize) {
+        this.responseObserver = responseObserver;
+        this.productAsyncService = productAsyncService;
+        this.productEventLog = productEventLog;
+        this.watchExecutor = watchExecutor;
+        this.context = Context.current();
+        this.bufferSize = bufferSize;
+        this.snapshotChunkSize = snapshotChunkSize;
+        this.buffer = new ArrayDeque<>(Math.min(bufferSize, 64));
+    }
+
+    void start(long resumeRevision) {
+        this.responseObserver.setOnCancelHandler(this::cancel);
+        this.responseObserver.setOnReadyHandler(this::scheduleDrain);
+        synchronized (this) {
+            this.lastSentRevision = resumeRevision;
+        }
+        if (!this.productEventLog.subscribe(this, resumeRevision)) {
+            // taken before the first page is read, so the snapshot reflects every change up to it
+            var revision = this.productEventLog.currentRevision();
+            synchronized (this) {
+                this.lagging = false;
+                this.buffer.clear();
+                this.snapshotRevision = revision;
+            }
+        }
+        synchronized (this) {
+            this.started = true;
+        }
+        this.scheduleDrain();
+    }
+
+    @Override
+    public synchronized boolean offer(ProductEvent event) {
+        if (this.terminated || this.lagging) {
+            return false;
+        }
+        if (this.buffer.size() >= this.bufferSize) {
+            this.lagging = true;
+            this.buffer.clear();
+            this.scheduleDrain();
+            return false;
+        }
+        this.buffer.add(event);
+        this.scheduleDrain();
+        return true;
+    }
+
+    private void cancel() {
+        synchronized (this) {
+            this.terminated = true;
+            this.buffer.clear();
+        }
+        // outside this monitor: the log offers events while holding its own lock, so taking it here would invert them
+        this.productEventLog.unsubscribe(this);
+    }
+
+    private synchronized void scheduleDrain() {
+        if (!this.started || this.drainScheduled || this.terminated) {
+            return;
+        }
+        this.drainScheduled = true;
+        this.watchExecutor.execute(this::drain);
+    }
+
+    private void drain() {
+        synchronized (this) {
+            this.drainScheduled = false;
+        }
+        while (this.responseObserver.isReady()) {
+            var event = this.next();
+            if (event == null) {
+                return;
+            }
+            this.responseObserver.onNext(event);
+            if (event.getType() == ProductEvent.Type.SNAPSHOT_COMPLETE) {
+                this.follow(event.getRevision());
+            }
+        }
+    }
+
+    /**
+     * Subscribes once the snapshot is sent; the log replays the changes made since it started, so none is sent twice.
+     */
+    private void follow(long snapshotRevision) {
+        if (this.productEventLog.subscribe(this, snapshotRevision)) {
+            return;
+        }
+        // more changes during the snapshot than the log retains or the buffer holds
+        synchronized (this) {
+            this.buffer.clear();
+            this.lagging = true;
+        }
+        this.scheduleDrain();
+    }
+
+    private synchronized ProductEvent next() {
+        if (this.terminated || this.responseObserver.isCancelled()) {
+            return null;
+        }
+        if (this.lagging) {
+            this.terminated = true;
+            this.responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                    .withDescription(String.format(ERROR_MESSAGE, this.bufferSize, this.lastSentRevision))
+                    .asRuntimeException());
+            return null;
+        }
+        if (this.snapshotRevision >= 0) {
+            return this.nextSnapshotEvent();
+        }
+        var event = this.buffer.poll();
+        if (event != null) {
+            this.lastSentRevision = event.getRevision();
+        }
+        return event;
+    }
+
+    private ProductEvent nextSnapshotEvent() {
+        if (this.snapshotChunk != null && this.snapshotChunk.hasNext()) {
+            var product = this.snapshotChunk.next();
+            this.snapshotLastId = product.getId();
+            return ProductEvent.newBuilder()
+                    .setRevision(this.snapshotRevision)
+                    .setType(ProductEvent.Type.SNAPSHOT)
+                    .setId(product.getId())
+                    .setProduct(product)
+                    .build();
+        }
+        if (this.snapshotExhausted) {
+            var complete = ProductEvent.newBuilder()
+                    .setRevision(this.snapshotRevision)
+                    .setType(ProductEvent.Type.SNAPSHOT_COMPLETE)
+                    .build();
+            this.lastSentRevision = this.snapshotRevision;
+            this.snapshotRevision = -1;
+            this.snapshotChunk = null;
+            return complete;
+        }
+        if (!this.fetching) {
+            this.fetching = true;
+            this.context.run(() -> this.productAsyncService.findPage(this.snapshotLastId, this.snapshotChunkSize)
+                    .whenComplete((products, error) -> this.onSnapshotChunk(products, error)));
+        }
+        return null;
+    }
+
+    private void onSnapshotChunk(List<ProductResponse> products, Throwable error) {
+        synchronized (this) {
+            this.fetching = false;
+            if (this.terminated) {
+                return;
+            }
+            if (error == null) {
+                this.snapshotChunk = products.iterator();
+                this.snapshotExhausted = products.size() < this.snapshotChunkSize;
+            } else {
+                this.terminated = true;
+            }
+        }
+        if (error != null) {
+            this.productEventLog.unsubscribe(this);
+            this.watchExecutor.execute(() -> this.responseObserver.onError(ExceptionHandler.toStatusRuntimeException(error)));
+            return;
+        }
+        this.scheduleDrain();
+    }
+}
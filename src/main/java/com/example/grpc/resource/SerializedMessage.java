@@ -0,0 +1,61 @@
+package com.example.grpc.resource;
+
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A response message that is already serialized, sent as is by {@link #MARSHALLER}.
+ */
+public final class SerializedMessage {
+    public static final MethodDescriptor.Marshaller<SerializedMessage> MARSHALLER = new MethodDescriptor.Marshaller<>() {
+        @Override
+        public InputStream stream(SerializedMessage value) {
+            return new BytesInputStream(value.bytes);
+        }
+
+        @Override
+        public SerializedMessage parse(InputStream stream) {
+            try {
+                return new SerializedMessage(stream.readAllBytes());
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    };
+
+    private final byte[] bytes;
+
+    /**
+     * @param bytes serialized message; it is not copied, so it must not change afterwards
+     */
+    public SerializedMessage(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public int getSerializedSize() {
+        return this.bytes.length;
+    }
+
+    /**
+     * Known length and drainable, so the framer writes the bytes once instead of buffering the stream to measure it.
+     */
+    private static final class BytesInputStream extends ByteArrayInputStream implements KnownLength, Drainable {
+        private BytesInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            var drained = this.count - this.pos;
+            target.write(this.buf, this.pos, drained);
+            this.pos = this.count;
+            return drained;
+        }
+    }
+}
@@ -1,17 +1,34 @@
 package com.example.grpc.resource.handler;
 
 import com.example.grpc.service.exception.BaseBusinessException;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import net.devh.boot.grpc.server.advice.GrpcAdvice;
 import net.devh.boot.grpc.server.advice.GrpcExceptionHandler;
 
+import java.util.concurrent.CompletionException;
+
 @GrpcAdvice
 public class ExceptionHandler {
     @GrpcExceptionHandler(BaseBusinessException.class)
     public StatusRuntimeException handleBusinessException(BaseBusinessException ex) {
-        return ex.getStatusCode()
-                .withCause(ex.getCause())
-                .withDescription(ex.getErrorMessage())
-                .asRuntimeException();
+        return toStatusRuntimeException(ex);
+    }
+
+    public static StatusRuntimeException toStatusRuntimeException(Throwable throwable) {
+        var cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+        if (cause instanceof BaseBusinessException) {
+            var ex = (BaseBusinessException) cause;
+            return ex.getStatusCode()
+                    .withCause(ex)
+                    .withDescription(ex.getErrorMessage())
+                    .asRuntimeException();
+        }
+        if (cause instanceof StatusRuntimeException) {
+            return (StatusRuntimeException) cause;
+        }
+        return Status.fromThrowable(cause).asRuntimeException();
     }
 }
@@ -0,0 +1,87 @@
+package com.example.grpc.resource.interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Additive-increase/multiplicative-decrease limit on concurrent calls, driven by call latency. Calls admitted since the
+ * last decrease form a sampling window: the first slow or dropped call of a window cuts the limit and starts the next
+ * window, so a burst of calls that overran together is counted as one congestion signal.
+ */
+final class AdaptiveConcurrencyLimit {
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final AtomicInteger limit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger window = new AtomicInteger();
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+                             double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.min(Math.max(initialLimit, minLimit), maxLimit));
+    }
+
+    /**
+     * @return the calls in flight including this one, or -1 when the limit is reached
+     */
+    int tryAcquire() {
+        var current = this.inFlight.incrementAndGet();
+        if (current > this.limit.get()) {
+            this.inFlight.decrementAndGet();
+            return -1;
+        }
+        return current;
+    }
+
+    /**
+     * @return the sampling window a call admitted now belongs to
+     */
+    int window() {
+        return this.window.get();
+    }
+
+    /**
+     * Releases a call admitted by {@link #tryAcquire()} and adapts the limit.
+     *
+     * @param inFlightAtStart value returned by {@link #tryAcquire()}
+     * @param window          value of {@link #window()} when the call was admitted
+     * @param dropped         whether the call timed out or was shed further down
+     */
+    void release(int inFlightAtStart, int window, long latencyNanos, boolean dropped) {
+        this.inFlight.decrementAndGet();
+        if (dropped || latencyNanos > this.latencyThresholdNanos) {
+            if (this.window.compareAndSet(window, window + 1)) {
+                this.limit.updateAndGet(current -> Math.max(this.minLimit, (int) (current * this.backoffRatio)));
+            }
+        } else if (inFlightAtStart * 2 >= this.limit.get()) {
+            // only grow while the limit is actually being used
+            this.limit.updateAndGet(current -> Math.min(this.maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Releases a call without adapting the limit, for calls the client cancelled: their latency says nothing about
+     * the server.
+     */
+    void release() {
+        this.inFlight.decrementAndGet();
+    }
+
+    int limit() {
+        return this.limit.get();
+    }
+
+    int inFlight() {
+        return this.inFlight.get();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.grpc.resource.interceptor;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class CallAdmissionInterceptor implements ServerInterceptor {
+    private static final String ERROR_MESSAGE = "Limite de %s chamadas simultâneas atingido.";
+
+    private final int maxConcurrentCalls;
+
+    private final Semaphore permits;
+
+    public CallAdmissionInterceptor(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!this.permits.tryAcquire()) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription(String.format(ERROR_MESSAGE, this.maxConcurrentCalls)),
+                    new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        var permit = new Permit(this.permits);
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+                @Override
+                public void close(Status status, Metadata trailers) {
+                    permit.release();
+                    super.close(status, trailers);
+                }
+            }, headers);
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                permit.release();
+                super.onCancel();
+            }
+
+            @Override
+            public void onComplete() {
+                permit.release();
+                super.onComplete();
+            }
+        };
+    }
+
+    private static final class Permit {
+        private final Semaphore permits;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        private void release() {
+            if (this.released.compareAndSet(false, true)) {
+                this.permits.release();
+            }
+        }
+    }
+}
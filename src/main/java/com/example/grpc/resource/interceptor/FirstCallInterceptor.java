@@ -0,0 +1,44 @@
+package com.example.grpc.resource.interceptor;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a callback once, as the first successful call closes; afterwards calls pass through untouched. Calls carrying
+ * the ignored header, such as warm-up calls, are not counted.
+ */
+public class FirstCallInterceptor implements ServerInterceptor {
+    private final Runnable onFirstCall;
+
+    private final Metadata.Key<String> ignoredHeader;
+
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    public FirstCallInterceptor(Runnable onFirstCall, Metadata.Key<String> ignoredHeader) {
+        this.onFirstCall = onFirstCall;
+        this.ignoredHeader = ignoredHeader;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (this.completed.get() || headers.containsKey(this.ignoredHeader)) {
+            return next.startCall(call, headers);
+        }
+        return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (status.isOk() && FirstCallInterceptor.this.completed.compareAndSet(false, true)) {
+                    FirstCallInterceptor.this.onFirstCall.run();
+                }
+                super.close(status, trailers);
+            }
+        }, headers);
+    }
+}
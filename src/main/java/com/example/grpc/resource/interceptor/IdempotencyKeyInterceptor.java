@@ -0,0 +1,28 @@
+package com.example.grpc.resource.interceptor;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+/**
+ * Exposes the {@code idempotency-key} request header to service methods through {@link #IDEMPOTENCY_KEY}.
+ */
+public class IdempotencyKeyInterceptor implements ServerInterceptor {
+    public static final Metadata.Key<String> IDEMPOTENCY_KEY_HEADER =
+            Metadata.Key.of("idempotency-key", Metadata.ASCII_STRING_MARSHALLER);
+
+    public static final Context.Key<String> IDEMPOTENCY_KEY = Context.key("idempotency-key");
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        var idempotencyKey = headers.get(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return next.startCall(call, headers);
+        }
+        return Contexts.interceptCall(Context.current().withValue(IDEMPOTENCY_KEY, idempotencyKey), call, headers, next);
+    }
+}
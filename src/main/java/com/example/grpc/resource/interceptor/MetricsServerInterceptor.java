@@ -0,0 +1,204 @@
+package com.example.grpc.resource.interceptor;
+
+import com.example.grpc.service.exception.BaseBusinessException;
+import com.example.grpc.resource.SerializedMessage;
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Publishes per-method call latency (by status code), in-flight calls, message sizes and business exception
+ * counts. Meters are created once per method and status, so a call only allocates its two forwarding wrappers.
+ */
+public class MetricsServerInterceptor implements ServerInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    private final Metadata.Key<String> ignoredHeader;
+
+    private final ConcurrentMap<String, MethodMeters> methodMeters = new ConcurrentHashMap<>();
+
+    /**
+     * @param ignoredHeader calls carrying it, such as warm-up calls, are not recorded
+     */
+    public MetricsServerInterceptor(MeterRegistry meterRegistry, Metadata.Key<String> ignoredHeader) {
+        this.meterRegistry = meterRegistry;
+        this.ignoredHeader = ignoredHeader;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (headers.containsKey(this.ignoredHeader)) {
+            return next.startCall(call, headers);
+        }
+        var meters = this.metersFor(call.getMethodDescriptor());
+        var monitoredCall = new MonitoredServerCall<>(call, meters);
+
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(monitoredCall, headers);
+        } catch (RuntimeException e) {
+            monitoredCall.record(Status.fromThrowable(e));
+            throw e;
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                meters.recordRequestSize(message);
+                super.onMessage(message);
+            }
+
+            @Override
+            public void onCancel() {
+                monitoredCall.record(Status.CANCELLED);
+                super.onCancel();
+            }
+        };
+    }
+
+    private MethodMeters metersFor(MethodDescriptor<?, ?> methodDescriptor) {
+        var meters = this.methodMeters.get(methodDescriptor.getFullMethodName());
+        if (meters == null) {
+            meters = this.methodMeters.computeIfAbsent(methodDescriptor.getFullMethodName(),
+                    fullMethodName -> new MethodMeters(this.meterRegistry, methodDescriptor));
+        }
+        return meters;
+    }
+
+    private static final class MonitoredServerCall<ReqT, RespT> extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+        private static final AtomicIntegerFieldUpdater<MonitoredServerCall> RECORDED =
+                AtomicIntegerFieldUpdater.newUpdater(MonitoredServerCall.class, "recorded");
+
+        private final MethodMeters meters;
+
+        private final long startNanos;
+
+        private volatile int recorded;
+
+        private MonitoredServerCall(ServerCall<ReqT, RespT> delegate, MethodMeters meters) {
+            super(delegate);
+            this.meters = meters;
+            this.startNanos = System.nanoTime();
+            meters.inFlight.incrementAndGet();
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            this.meters.recordResponseSize(message);
+            super.sendMessage(message);
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            this.record(status);
+            super.close(status, trailers);
+        }
+
+        private void record(Status status) {
+            if (!RECORDED.compareAndSet(this, 0, 1)) {
+                return;
+            }
+            this.meters.inFlight.decrementAndGet();
+            this.meters.timer(status.getCode()).record(System.nanoTime() - this.startNanos, TimeUnit.NANOSECONDS);
+            if (status.getCause() instanceof BaseBusinessException) {
+                this.meters.businessException(status.getCause().getClass()).increment();
+            }
+        }
+    }
+
+    private static final class MethodMeters {
+        private final MeterRegistry meterRegistry;
+
+        private final Tags tags;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(Status.Code.values().length);
+
+        private final ConcurrentMap<Class<?>, Counter> businessExceptions = new ConcurrentHashMap<>();
+
+        private final DistributionSummary requestSize;
+
+        private final DistributionSummary responseSize;
+
+        private MethodMeters(MeterRegistry meterRegistry, MethodDescriptor<?, ?> methodDescriptor) {
+            this.meterRegistry = meterRegistry;
+            this.tags = Tags.of(
+                    "service", String.valueOf(methodDescriptor.getServiceName()),
+                    "method", String.valueOf(methodDescriptor.getBareMethodName()),
+                    "type", methodDescriptor.getType().name());
+            this.requestSize = this.messageSize("request");
+            this.responseSize = this.messageSize("response");
+            Gauge.builder("grpc.server.calls.in.flight", this.inFlight, AtomicInteger::get)
+                    .description("gRPC calls started but not yet closed")
+                    .tags(this.tags)
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(Status.Code code) {
+            var timer = this.timers.get(code.ordinal());
+            if (timer == null) {
+                timer = Timer.builder("grpc.server.calls")
+                        .description("gRPC server call latency, from call start until close")
+                        .tags(this.tags)
+                        .tag("status", code.name())
+                        .publishPercentileHistogram()
+                        .register(this.meterRegistry);
+                this.timers.set(code.ordinal(), timer);
+            }
+            return timer;
+        }
+
+        private Counter businessException(Class<?> exceptionType) {
+            return this.businessExceptions.computeIfAbsent(exceptionType, type -> Counter.builder("grpc.server.business.exceptions")
+                    .description("Business exceptions mapped to a gRPC status")
+                    .tags(this.tags)
+                    .tag("exception", type.getSimpleName())
+                    .register(this.meterRegistry));
+        }
+
+        private void recordRequestSize(Object message) {
+            if (message instanceof MessageLite) {
+                this.requestSize.record(((MessageLite) message).getSerializedSize());
+            }
+        }
+
+        private void recordResponseSize(Object message) {
+            if (message instanceof MessageLite) {
+                this.responseSize.record(((MessageLite) message).getSerializedSize());
+            } else if (message instanceof SerializedMessage) {
+                this.responseSize.record(((SerializedMessage) message).getSerializedSize());
+            }
+        }
+
+        private DistributionSummary messageSize(String direction) {
+            return DistributionSummary.builder("grpc.server.message.size")
+                    .description("Serialized size of gRPC messages")
+                    .baseUnit("bytes")
+                    .tags(this.tags)
+                    .tag("direction", direction)
+                    .publishPercentileHistogram()
+                    .register(this.meterRegistry);
+        }
+    }
+}
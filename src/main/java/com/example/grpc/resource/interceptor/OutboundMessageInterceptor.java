@@ -0,0 +1,123 @@
+package com.example.grpc.resource.interceptor;
+
+import com.example.grpc.resource.SerializedMessage;
+import com.google.protobuf.MessageLite;
+import io.grpc.CompressorRegistry;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compresses responses per method and enforces the outbound message size limit. The call's codec is chosen up front
+ * (it travels in the response headers), then each message is compressed only if it reaches the size threshold.
+ */
+public class OutboundMessageInterceptor implements ServerInterceptor {
+    private static final String IDENTITY = "identity";
+
+    private static final String ERROR_MESSAGE = "Resposta de %s bytes excede o limite de %s bytes.";
+
+    private final String defaultCodec;
+
+    private final Map<String, String> methodCodecs;
+
+    private final int minCompressedSize;
+
+    private final int maxMessageSize;
+
+    private final ConcurrentMap<String, String> codecByMethod = new ConcurrentHashMap<>();
+
+    public OutboundMessageInterceptor(String defaultCodec, Map<String, String> methodCodecs, int minCompressedSize,
+                                      int maxMessageSize, CompressorRegistry compressorRegistry) {
+        this.defaultCodec = this.checkRegistered(defaultCodec, compressorRegistry);
+        methodCodecs.values().forEach(codec -> this.checkRegistered(codec, compressorRegistry));
+        this.methodCodecs = Map.copyOf(methodCodecs);
+        this.minCompressedSize = minCompressedSize;
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        var codec = this.codecFor(call.getMethodDescriptor());
+        var compressed = !IDENTITY.equals(codec);
+        if (compressed) {
+            call.setCompression(codec);
+        }
+        return next.startCall(new OutboundMessageCall<>(call, compressed), headers);
+    }
+
+    private String codecFor(MethodDescriptor<?, ?> methodDescriptor) {
+        var fullMethodName = methodDescriptor.getFullMethodName();
+        var codec = this.codecByMethod.get(fullMethodName);
+        if (codec == null) {
+            codec = this.codecByMethod.computeIfAbsent(fullMethodName, name -> this.methodCodecs.getOrDefault(name,
+                    this.methodCodecs.getOrDefault(methodDescriptor.getBareMethodName(), this.defaultCodec)));
+        }
+        return codec;
+    }
+
+    private String checkRegistered(String codec, CompressorRegistry compressorRegistry) {
+        if (!IDENTITY.equals(codec) && compressorRegistry.lookupCompressor(codec) == null) {
+            throw new IllegalStateException("No gRPC compressor registered for codec " + codec);
+        }
+        return codec;
+    }
+
+    private final class OutboundMessageCall<ReqT, RespT> extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+        private final boolean compressed;
+
+        private int oversizedMessageSize = -1;
+
+        private OutboundMessageCall(ServerCall<ReqT, RespT> delegate, boolean compressed) {
+            super(delegate);
+            this.compressed = compressed;
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            if (this.oversizedMessageSize >= 0) {
+                return;
+            }
+            var size = this.serializedSize(message);
+            if (size >= 0) {
+                if (size > maxMessageSize) {
+                    // failing here would leave the handler's call open; fail it on close instead
+                    this.oversizedMessageSize = size;
+                    return;
+                }
+                if (this.compressed) {
+                    super.setMessageCompression(size >= minCompressedSize);
+                }
+            }
+            super.sendMessage(message);
+        }
+
+        private int serializedSize(RespT message) {
+            if (message instanceof MessageLite) {
+                return ((MessageLite) message).getSerializedSize();
+            }
+            if (message instanceof SerializedMessage) {
+                return ((SerializedMessage) message).getSerializedSize();
+            }
+            return -1;
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            if (this.oversizedMessageSize >= 0 && status.isOk()) {
+                super.close(Status.RESOURCE_EXHAUSTED.withDescription(
+                        String.format(ERROR_MESSAGE, this.oversizedMessageSize, maxMessageSize)), new Metadata());
+                return;
+            }
+            super.close(status, trailers);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.grpc.resource.interceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.grpc.Context;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rejects calls over the per-client, per-method rate and sheds unary calls to the limited services over the adaptive
+ * concurrency limit, both with RESOURCE_EXHAUSTED and a {@code grpc-retry-pushback-ms} trailer honoured by gRPC retry
+ * policies.
+ */
+public class RateLimitInterceptor implements ServerInterceptor {
+    public static final Metadata.Key<String> RETRY_PUSHBACK_TRAILER =
+            Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final String RATE_ERROR_MESSAGE = "Limite de requisições de %s excedido; tente novamente em %s ms.";
+
+    private static final String CONCURRENCY_ERROR_MESSAGE = "Servidor sobrecarregado: limite de %s chamadas simultâneas.";
+
+    private static final MethodRateLimit UNLIMITED = new MethodRateLimit(0, 0, 0, Duration.ZERO);
+
+    private final Metadata.Key<String> clientIdHeader;
+
+    private final Limit defaultLimit;
+
+    private final Map<String, Limit> methodLimits;
+
+    private final long maxClients;
+
+    private final Duration clientIdleTimeout;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final long concurrencyRetryAfterMillis;
+
+    private final Set<String> concurrencyLimitedServices;
+
+    private final Metadata.Key<String> ignoredHeader;
+
+    private final ConcurrentMap<String, MethodRateLimit> rateLimitByMethod = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(String clientIdHeader, Limit defaultLimit, Map<String, Limit> methodLimits,
+                                long maxClients, Duration clientIdleTimeout, AdaptiveConcurrency concurrency,
+                                Metadata.Key<String> ignoredHeader) {
+        this.clientIdHeader = Metadata.Key.of(clientIdHeader, Metadata.ASCII_STRING_MARSHALLER);
+        this.defaultLimit = defaultLimit;
+        this.methodLimits = Map.copyOf(methodLimits);
+        this.maxClients = maxClients;
+        this.clientIdleTimeout = clientIdleTimeout;
+        this.concurrencyLimit = concurrency == null ? null : new AdaptiveConcurrencyLimit(concurrency.initialLimit,
+                concurrency.minLimit, concurrency.maxLimit, concurrency.latencyThreshold.toNanos(), concurrency.backoffRatio);
+        this.concurrencyRetryAfterMillis = concurrency == null ? 0 : concurrency.retryAfter.toMillis();
+        this.concurrencyLimitedServices = concurrency == null ? Set.of() : Set.copyOf(concurrency.services);
+        this.ignoredHeader = ignoredHeader;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (headers.containsKey(this.ignoredHeader)) {
+            // in-process warm-up calls neither spend client tokens nor teach the concurrency limit
+            return next.startCall(call, headers);
+        }
+        var methodDescriptor = call.getMethodDescriptor();
+        var rateLimit = this.rateLimitFor(methodDescriptor);
+        if (rateLimit != UNLIMITED) {
+            var waitNanos = rateLimit.bucketFor(this.clientId(call, headers)).tryAcquire(System.nanoTime());
+            if (waitNanos > 0) {
+                var retryAfterMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+                return this.reject(call, String.format(RATE_ERROR_MESSAGE, methodDescriptor.getBareMethodName(),
+                        retryAfterMillis), retryAfterMillis);
+            }
+        }
+        if (this.concurrencyLimit == null || methodDescriptor.getType() != MethodDescriptor.MethodType.UNARY
+                || !this.concurrencyLimitedServices.contains(methodDescriptor.getServiceName())) {
+            // health checks and reflection must answer, and teach the limit nothing, while the service is saturated
+            return next.startCall(call, headers);
+        }
+
+        var inFlightAtStart = this.concurrencyLimit.tryAcquire();
+        if (inFlightAtStart < 0) {
+            return this.reject(call, String.format(CONCURRENCY_ERROR_MESSAGE, this.concurrencyLimit.limit()),
+                    this.concurrencyRetryAfterMillis);
+        }
+        var permit = new ConcurrencyPermit(this.concurrencyLimit, inFlightAtStart);
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+                @Override
+                public void close(Status status, Metadata trailers) {
+                    if (status.getCode() == Status.Code.CANCELLED) {
+                        permit.abandon();
+                    } else {
+                        permit.release(status.getCode() == Status.Code.DEADLINE_EXCEEDED);
+                    }
+                    super.close(status, trailers);
+                }
+            }, headers);
+        } catch (RuntimeException e) {
+            permit.release(false);
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                // a call past its deadline is dropped; one the client gave up on is not a latency sample
+                var deadline = Context.current().getDeadline();
+                if (deadline != null && deadline.isExpired()) {
+                    permit.release(true);
+                } else {
+                    permit.abandon();
+                }
+                super.onCancel();
+            }
+        };
+    }
+
+    private <ReqT, RespT> ServerCall.Listener<ReqT> reject(ServerCall<ReqT, RespT> call, String description,
+                                                           long retryAfterMillis) {
+        var trailers = new Metadata();
+        trailers.put(RETRY_PUSHBACK_TRAILER, Long.toString(retryAfterMillis));
+        call.close(Status.RESOURCE_EXHAUSTED.withDescription(description), trailers);
+        return new ServerCall.Listener<>() {
+        };
+    }
+
+    private MethodRateLimit rateLimitFor(MethodDescriptor<?, ?> methodDescriptor) {
+        var fullMethodName = methodDescriptor.getFullMethodName();
+        var rateLimit = this.rateLimitByMethod.get(fullMethodName);
+        if (rateLimit == null) {
+            rateLimit = this.rateLimitByMethod.computeIfAbsent(fullMethodName, name -> {
+                var limit = this.methodLimits.getOrDefault(name,
+                        this.methodLimits.getOrDefault(methodDescriptor.getBareMethodName(), this.defaultLimit));
+                return limit.permitsPerSecond > 0
+                        ? new MethodRateLimit(limit.permitsPerSecond, limit.burst, this.maxClients, this.clientIdleTimeout)
+                        : UNLIMITED;
+            });
+        }
+        return rateLimit;
+    }
+
+    private String clientId(ServerCall<?, ?> call, Metadata headers) {
+        var clientId = headers.get(this.clientIdHeader);
+        if (clientId != null && !clientId.isBlank()) {
+            return clientId;
+        }
+        var remoteAddress = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        if (remoteAddress instanceof InetSocketAddress) {
+            // every connection of a host shares its limit
+            return ((InetSocketAddress) remoteAddress).getAddress().getHostAddress();
+        }
+        return String.valueOf(remoteAddress);
+    }
+
+    public static final class Limit {
+        private final double permitsPerSecond;
+
+        private final int burst;
+
+        public Limit(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    public static final class AdaptiveConcurrency {
+        private final int initialLimit;
+
+        private final int minLimit;
+
+        private final int maxLimit;
+
+        private final Duration latencyThreshold;
+
+        private final double backoffRatio;
+
+        private final Duration retryAfter;
+
+        private final Set<String> services;
+
+        /**
+         * @param services the services whose unary calls are limited
+         */
+        public AdaptiveConcurrency(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                                   double backoffRatio, Duration retryAfter, Set<String> services) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+            this.backoffRatio = backoffRatio;
+            this.retryAfter = retryAfter;
+            this.services = services;
+        }
+    }
+
+    private static final class MethodRateLimit {
+        private final double permitsPerSecond;
+
+        private final int burst;
+
+        private final Cache<String, TokenBucket> buckets;
+
+        private MethodRateLimit(double permitsPerSecond, int burst, long maxClients, Duration clientIdleTimeout) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxClients)
+                    .expireAfterAccess(clientIdleTimeout)
+                    .build();
+        }
+
+        private TokenBucket bucketFor(String clientId) {
+            return this.buckets.get(clientId, id -> new TokenBucket(this.permitsPerSecond, this.burst));
+        }
+    }
+
+    private static final class ConcurrencyPermit {
+        private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+        private final int inFlightAtStart;
+
+        private final int window;
+
+        private final long startNanos = System.nanoTime();
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ConcurrencyPermit(AdaptiveConcurrencyLimit concurrencyLimit, int inFlightAtStart) {
+            this.concurrencyLimit = concurrencyLimit;
+            this.inFlightAtStart = inFlightAtStart;
+            this.window = concurrencyLimit.window();
+        }
+
+        private void release(boolean dropped) {
+            if (this.released.compareAndSet(false, true)) {
+                this.concurrencyLimit.release(this.inFlightAtStart, this.window, System.nanoTime() - this.startNanos,
+                        dropped);
+            }
+        }
+
+        private void abandon() {
+            if (this.released.compareAndSet(false, true)) {
+                this.concurrencyLimit.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.grpc.resource.interceptor;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.util.Arrays;
+
+/**
+ * Exposes a {@code prefer: return=minimal} request header (RFC 7240) to service methods through
+ * {@link #RETURN_MINIMAL}, so writes can answer with only the fields the server assigned.
+ */
+public class ReturnPreferenceInterceptor implements ServerInterceptor {
+    public static final Metadata.Key<String> PREFER_HEADER = Metadata.Key.of("prefer", Metadata.ASCII_STRING_MARSHALLER);
+
+    public static final Context.Key<Boolean> RETURN_MINIMAL = Context.keyWithDefault("return-minimal", false);
+
+    private static final String MINIMAL = "return=minimal";
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        var prefer = headers.get(PREFER_HEADER);
+        if (prefer == null || Arrays.stream(prefer.split(",")).map(String::trim).noneMatch(MINIMAL::equalsIgnoreCase)) {
+            return next.startCall(call, headers);
+        }
+        return Contexts.interceptCall(Context.current().withValue(RETURN_MINIMAL, true), call, headers, next);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.grpc.resource.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single theoretical arrival time (GCRA), so a permit costs one CAS and no timer.
+ */
+final class TokenBucket {
+    private final long emissionIntervalNanos;
+
+    private final long burstToleranceNanos;
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = this.emissionIntervalNanos * Math.max(burst, 1);
+    }
+
+    /**
+     * Takes a permit if one is available at {@code nowNanos}.
+     *
+     * @return zero when the permit was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            var arrival = this.theoreticalArrival.get();
+            var nextArrival = Math.max(arrival, nowNanos) + this.emissionIntervalNanos;
+            var allowedAt = nextArrival - this.burstToleranceNanos;
+            if (allowedAt > nowNanos) {
+                return allowedAt - nowNanos;
+            }
+            if (this.theoreticalArrival.compareAndSet(arrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+}
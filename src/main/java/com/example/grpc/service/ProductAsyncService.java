@@ -0,0 +1,42 @@
+package com.example.grpc.service;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.dto.ProductCreationResultDto;
+import com.example.grpc.dto.ProductInputDto;
+import com.example.grpc.dto.ProductOutputDto;
+import com.example.grpc.dto.ProductSearchDto;
+import com.example.grpc.dto.ProductUpdateDto;
+import com.example.grpc.dto.StockAdjustmentDto;
+import com.example.grpc.dto.StockAdjustmentResultDto;
+import com.example.grpc.dto.StockLevelDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface ProductAsyncService {
+    CompletableFuture<ProductOutputDto> create(final ProductInputDto productInputDto);
+
+    CompletableFuture<List<ProductCreationResultDto>> createAll(final List<ProductInputDto> productInputDtos);
+
+    CompletableFuture<ProductOutputDto> findById(final Long id);
+
+    CompletableFuture<List<ProductOutputDto>> findAllById(final Collection<Long> ids);
+
+    CompletableFuture<ProductOutputDto> update(final ProductUpdateDto productUpdateDto);
+
+    CompletableFuture<Void> delete(final Long id);
+
+    CompletableFuture<List<Long>> deleteAllById(final Collection<Long> ids);
+
+    CompletableFuture<List<ProductResponse>> findAll();
+
+    CompletableFuture<List<ProductResponse>> findPage(final Long afterId, final int size);
+
+    CompletableFuture<List<ProductResponse>> search(final ProductSearchDto criteria, final ProductResponse after,
+                                                    final int size);
+
+    CompletableFuture<StockLevelDto> adjustStock(final Long id, final int delta);
+
+    CompletableFuture<List<StockAdjustmentResultDto>> adjustStockAll(final List<StockAdjustmentDto> adjustments);
+}
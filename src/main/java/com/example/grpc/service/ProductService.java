@@ -1,16 +1,42 @@
 package com.example.grpc.service;
 
+import com.example.grpc.ProductResponse;
+import com.example.grpc.dto.ProductCreationResultDto;
 import com.example.grpc.dto.ProductInputDto;
 import com.example.grpc.dto.ProductOutputDto;
+import com.example.grpc.dto.ProductSearchDto;
+import com.example.grpc.dto.ProductUpdateDto;
+import com.example.grpc.dto.StockAdjustmentDto;
+import com.example.grpc.dto.StockAdjustmentResultDto;
+import com.example.grpc.dto.StockLevelDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductService {
     ProductOutputDto create(final ProductInputDto productInputDto);
 
+    List<ProductCreationResultDto> createAll(final List<ProductInputDto> productInputDtos);
+
     ProductOutputDto findById(final Long id);
 
+    List<ProductOutputDto> findAllById(final Collection<Long> ids);
+
+    ProductOutputDto update(final ProductUpdateDto productUpdateDto);
+
     void delete(final Long id);
 
+    List<Long> deleteAllById(final Collection<Long> ids);
+
     List<ProductOutputDto> findAll();
+
+    List<ProductOutputDto> findPage(final Long afterId, final int size);
+
+    List<ProductResponse> findResponsePage(final Long afterId, final int size);
+
+    List<ProductResponse> search(final ProductSearchDto criteria, final ProductResponse after, final int size);
+
+    StockLevelDto adjustStock(final Long id, final int delta);
+
+    List<StockAdjustmentResultDto> adjustStockAll(final List<StockAdjustmentDto> adjustments);
 }
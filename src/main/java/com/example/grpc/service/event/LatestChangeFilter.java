@@ -0,0 +1,29 @@
+package com.example.grpc.service.event;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the latest {@link ProductChangedEvent#getSequence() sequence} seen per product, so that a change committed
+ * before another one of the same product but delivered after it is recognised as stale.
+ */
+public class LatestChangeFilter {
+    // listeners of two commits on one row run microseconds apart; entries only need to outlive that gap
+    private static final Duration RETENTION = Duration.ofMinutes(1);
+
+    private final ConcurrentMap<Long, Long> sequenceById = Caffeine.newBuilder()
+            .expireAfterWrite(RETENTION)
+            .<Long, Long>build()
+            .asMap();
+
+    /**
+     * Records the event and returns true unless a later change of the same product was already seen.
+     */
+    public boolean isLatest(ProductChangedEvent event) {
+        var sequence = event.getSequence();
+        var latest = this.sequenceById.merge(event.getId(), sequence, Math::max);
+        return latest == sequence;
+    }
+}
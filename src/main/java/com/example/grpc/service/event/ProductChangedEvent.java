@@ -0,0 +1,74 @@
+package com.example.grpc.service.event;
+
+import com.example.grpc.dto.ProductOutputDto;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A change to one product, published by the service right after writing the row. The {@code sequence} is stamped when
+ * the event is built, while the transaction still holds the row lock, so for one product it follows commit order even
+ * when the after-commit listeners of two transactions run in the other order.
+ */
+@Data
+public class ProductChangedEvent {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final Type type;
+
+    private final Long id;
+
+    private final ProductOutputDto product;
+
+    private final Integer quantityInStock;
+
+    // orders deliveries, not part of the change itself
+    @EqualsAndHashCode.Exclude
+    private final long sequence;
+
+    public static ProductChangedEvent created(ProductOutputDto product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product, product.getQuantityInStock(),
+                SEQUENCE.incrementAndGet());
+    }
+
+    public static ProductChangedEvent updated(ProductOutputDto product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), product, product.getQuantityInStock(),
+                SEQUENCE.incrementAndGet());
+    }
+
+    public static ProductChangedEvent deleted(Long id) {
+        return new ProductChangedEvent(Type.DELETED, id, null, null, SEQUENCE.incrementAndGet());
+    }
+
+    public static ProductChangedEvent stockAdjusted(Long id, Integer quantityInStock) {
+        return new ProductChangedEvent(Type.STOCK_ADJUSTED, id, null, quantityInStock, SEQUENCE.incrementAndGet());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ProductOutputDto getProduct() {
+        return product;
+    }
+
+    public Integer getQuantityInStock() {
+        return quantityInStock;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        STOCK_ADJUSTED
+    }
+}
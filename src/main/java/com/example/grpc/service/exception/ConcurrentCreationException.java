@@ -0,0 +1,22 @@
+package com.example.grpc.service.exception;
+
+import io.grpc.Status;
+
+public class ConcurrentCreationException extends BaseBusinessException {
+    private static final String ERROR_MESSAGE = "Produto do lote cadastrado concorrentemente; tente novamente.";
+
+    public ConcurrentCreationException(Throwable cause) {
+        super(ERROR_MESSAGE);
+        this.initCause(cause);
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return ERROR_MESSAGE;
+    }
+
+    @Override
+    public Status getStatusCode() {
+        return Status.ABORTED;
+    }
+}
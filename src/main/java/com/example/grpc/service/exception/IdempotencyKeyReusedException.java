@@ -0,0 +1,23 @@
+package com.example.grpc.service.exception;
+
+import io.grpc.Status;
+
+public class IdempotencyKeyReusedException extends BaseBusinessException {
+    private static final String ERROR_MESSAGE = "Chave de idempotência %s já utilizada com outra requisição.";
+    private final String key;
+
+    public IdempotencyKeyReusedException(String key) {
+        super(String.format(ERROR_MESSAGE, key));
+        this.key = key;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return String.format(ERROR_MESSAGE, key);
+    }
+
+    @Override
+    public Status getStatusCode() {
+        return Status.INVALID_ARGUMENT;
+    }
+}
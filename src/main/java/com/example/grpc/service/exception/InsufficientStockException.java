@@ -0,0 +1,23 @@
+package com.example.grpc.service.exception;
+
+import io.grpc.Status;
+
+public class InsufficientStockException extends BaseBusinessException {
+    private static final String ERROR_MESSAGE = "Estoque insuficiente para o produto com ID %s.";
+    private final Long id;
+
+    public InsufficientStockException(Long id) {
+        super(String.format(ERROR_MESSAGE, id));
+        this.id = id;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return String.format(ERROR_MESSAGE, id);
+    }
+
+    @Override
+    public Status getStatusCode() {
+        return Status.FAILED_PRECONDITION;
+    }
+}
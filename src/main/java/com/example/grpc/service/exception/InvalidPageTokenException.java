@@ -0,0 +1,23 @@
+package com.example.grpc.service.exception;
+
+import io.grpc.Status;
+
+public class InvalidPageTokenException extends BaseBusinessException {
+    private static final String ERROR_MESSAGE = "Token de página %s inválido.";
+    private final String pageToken;
+
+    public InvalidPageTokenException(String pageToken) {
+        super(String.format(ERROR_MESSAGE, pageToken));
+        this.pageToken = pageToken;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return String.format(ERROR_MESSAGE, pageToken);
+    }
+
+    @Override
+    public Status getStatusCode() {
+        return Status.INVALID_ARGUMENT;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.grpc.service.exception;
+
+import io.grpc.Status;
+
+public class InvalidUpdateMaskException extends BaseBusinessException {
+    private static final String ERROR_MESSAGE = "Campo %s não pode ser atualizado; campos permitidos: name, price.";
+    private final String path;
+
+    public InvalidUpdateMaskException(String path) {
+        super(String.format(ERROR_MESSAGE, path));
+        this.path = path;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return String.format(ERROR_MESSAGE, path);
+    }
+
+    @Override
+    public Status getStatusCode() {
+        return Status.INVALID_ARGUMENT;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.grpc.service.exception;
+
+import io.grpc.Status;
+
+public class VersionConflictException extends BaseBusinessException {
+    private static final String ERROR_MESSAGE = "Produto com ID %s foi alterado: versão esperada %s, versão atual %s.";
+    private final Long id;
+    private final Long expectedVersion;
+    private final Long currentVersion;
+
+    public VersionConflictException(Long id, Long expectedVersion, Long currentVersion) {
+        super(String.format(ERROR_MESSAGE, id, expectedVersion, currentVersion));
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return String.format(ERROR_MESSAGE, id, expectedVersion, currentVersion);
+    }
+
+    @Override
+    public Status getStatusCode() {
+        return Status.ABORTED;
+    }
+}
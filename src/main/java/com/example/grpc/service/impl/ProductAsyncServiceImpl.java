@@ -0,0 +1,198 @@
+package com.example.grpc.service.impl;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.dto.ProductCreationResultDto;
+import com.example.grpc.dto.ProductInputDto;
+import com.example.grpc.dto.ProductOutputDto;
+import com.example.grpc.dto.ProductSearchDto;
+import com.example.grpc.dto.ProductUpdateDto;
+import com.example.grpc.dto.StockAdjustmentDto;
+import com.example.grpc.dto.StockAdjustmentResultDto;
+import com.example.grpc.dto.StockLevelDto;
+import com.example.grpc.service.ProductAsyncService;
+import com.example.grpc.service.ProductService;
+import com.example.grpc.service.exception.ConcurrentCreationException;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Status;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Service
+public class ProductAsyncServiceImpl implements ProductAsyncService {
+    private static final int FIND_ALL_CHUNK_SIZE = 1000;
+
+    private static final int CREATE_ALL_ATTEMPTS = 3;
+
+    private static final String QUEUE_FULL_MESSAGE = "Servidor sobrecarregado: fila de consultas cheia.";
+
+    private final ProductService productService;
+
+    private final ExecutorService productQueryExecutor;
+
+    private final PlatformTransactionManager transactionManager;
+
+    public ProductAsyncServiceImpl(ProductService productService,
+                                   @Qualifier("productQueryExecutor") ExecutorService productQueryExecutor,
+                                   PlatformTransactionManager transactionManager) {
+        this.productService = productService;
+        this.productQueryExecutor = productQueryExecutor;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public CompletableFuture<ProductOutputDto> create(ProductInputDto productInputDto) {
+        return this.submit(() -> this.productService.create(productInputDto));
+    }
+
+    @Override
+    public CompletableFuture<List<ProductCreationResultDto>> createAll(List<ProductInputDto> productInputDtos) {
+        return this.submit(() -> this.productService.createAll(productInputDtos), CREATE_ALL_ATTEMPTS);
+    }
+
+    @Override
+    public CompletableFuture<ProductOutputDto> findById(Long id) {
+        return this.submit(() -> this.productService.findById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<ProductOutputDto>> findAllById(Collection<Long> ids) {
+        return this.submit(() -> this.productService.findAllById(ids));
+    }
+
+    @Override
+    public CompletableFuture<ProductOutputDto> update(ProductUpdateDto productUpdateDto) {
+        return this.submit(() -> this.productService.update(productUpdateDto));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(Long id) {
+        return this.submit(() -> {
+            this.productService.delete(id);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Long>> deleteAllById(Collection<Long> ids) {
+        return this.submit(() -> this.productService.deleteAllById(ids));
+    }
+
+    @Override
+    public CompletableFuture<List<ProductResponse>> findAll() {
+        return this.submit(() -> {
+            var products = new ArrayList<ProductResponse>();
+            List<ProductResponse> chunk;
+            do {
+                this.checkNotCancelled();
+                var lastId = products.isEmpty() ? 0L : products.get(products.size() - 1).getId();
+                chunk = this.productService.findResponsePage(lastId, FIND_ALL_CHUNK_SIZE);
+                products.addAll(chunk);
+            } while (chunk.size() == FIND_ALL_CHUNK_SIZE);
+            return products;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<ProductResponse>> findPage(Long afterId, int size) {
+        return this.submit(() -> this.productService.findResponsePage(afterId, size));
+    }
+
+    @Override
+    public CompletableFuture<List<ProductResponse>> search(ProductSearchDto criteria, ProductResponse after, int size) {
+        return this.submit(() -> this.productService.search(criteria, after, size));
+    }
+
+    @Override
+    public CompletableFuture<StockLevelDto> adjustStock(Long id, int delta) {
+        return this.submit(() -> this.productService.adjustStock(id, delta));
+    }
+
+    @Override
+    public CompletableFuture<List<StockAdjustmentResultDto>> adjustStockAll(List<StockAdjustmentDto> adjustments) {
+        return this.submit(() -> this.productService.adjustStockAll(adjustments));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return this.submit(task, 1);
+    }
+
+    /**
+     * Runs the task on the query executor, up to {@code attempts} times while it loses a race to a concurrent create:
+     * every attempt is a transaction of its own, as the one that hit the unique constraint can only roll back.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> task, int attempts) {
+        var context = Context.current();
+        var future = new CompletableFuture<T>();
+        Context.CancellationListener cancellationListener =
+                cancelledContext -> future.completeExceptionally(Contexts.statusFromCancelled(cancelledContext).asRuntimeException());
+        context.addListener(cancellationListener, MoreExecutors.directExecutor());
+        future.whenComplete((result, error) -> context.removeListener(cancellationListener));
+
+        try {
+            this.productQueryExecutor.execute(context.wrap(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(this.withinDeadline(task, attempts));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(Status.RESOURCE_EXHAUSTED.withDescription(QUEUE_FULL_MESSAGE).withCause(e)
+                    .asRuntimeException());
+        }
+        return future;
+    }
+
+    private <T> T withinDeadline(Supplier<T> task, int attempts) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return this.withinDeadline(task);
+            } catch (ConcurrentCreationException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the task in a transaction whose timeout is the call's remaining deadline, which Hibernate applies
+     * as the JDBC query timeout of every statement, so a query outliving its caller is aborted by the database.
+     */
+    private <T> T withinDeadline(Supplier<T> task) {
+        var deadline = Context.current().getDeadline();
+        if (deadline == null) {
+            return task.get();
+        }
+        var remainingMillis = deadline.timeRemaining(TimeUnit.MILLISECONDS);
+        if (remainingMillis <= 0) {
+            throw Status.DEADLINE_EXCEEDED.withDescription("deadline expired before the query started").asRuntimeException();
+        }
+        var transactionTemplate = new TransactionTemplate(this.transactionManager);
+        transactionTemplate.setTimeout((int) TimeUnit.MILLISECONDS.toSeconds(remainingMillis + 999));
+        return transactionTemplate.execute(status -> task.get());
+    }
+
+    private void checkNotCancelled() {
+        var context = Context.current();
+        if (context.isCancelled()) {
+            throw Contexts.statusFromCancelled(context).asRuntimeException();
+        }
+    }
+}
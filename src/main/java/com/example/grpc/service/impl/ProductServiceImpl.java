@@ -1,32 +1,134 @@
 package com.example.grpc.service.impl;
 
+import com.example.grpc.ProductResponse;
 import com.example.grpc.domain.Product;
+import com.example.grpc.dto.ProductCreationResultDto;
 import com.example.grpc.dto.ProductInputDto;
 import com.example.grpc.dto.ProductOutputDto;
+import com.example.grpc.dto.ProductSearchDto;
+import com.example.grpc.dto.ProductUpdateDto;
+import com.example.grpc.dto.StockAdjustmentDto;
+import com.example.grpc.dto.StockAdjustmentResultDto;
+import com.example.grpc.dto.StockLevelDto;
 import com.example.grpc.mapper.ProductConverter;
 import com.example.grpc.repository.ProductRepository;
+import com.example.grpc.repository.ProductResponseRepository;
+import com.example.grpc.repository.ProductStockRepository;
+import com.example.grpc.repository.ProductUpdateRepository;
 import com.example.grpc.service.ProductService;
+import com.example.grpc.service.event.ProductChangedEvent;
 import com.example.grpc.service.exception.AlreadyExistisException;
+import com.example.grpc.service.exception.ConcurrentCreationException;
+import com.example.grpc.service.exception.InsufficientStockException;
 import com.example.grpc.service.exception.NotFoundException;
+import com.example.grpc.service.exception.VersionConflictException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductServiceImpl implements ProductService {
+    private static final int IDS_CHUNK_SIZE = 1000;
+
     private ProductRepository productRepository;
 
-    public ProductServiceImpl(ProductRepository productRepository) {
+    private ProductResponseRepository productResponseRepository;
+
+    private ProductStockRepository productStockRepository;
+
+    private ProductUpdateRepository productUpdateRepository;
+
+    private StockAdjustmentAccumulator stockAdjustmentAccumulator;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    public ProductServiceImpl(ProductRepository productRepository, ProductResponseRepository productResponseRepository,
+                              ProductStockRepository productStockRepository,
+                              ProductUpdateRepository productUpdateRepository,
+                              StockAdjustmentAccumulator stockAdjustmentAccumulator,
+                              ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productResponseRepository = productResponseRepository;
+        this.productStockRepository = productStockRepository;
+        this.productUpdateRepository = productUpdateRepository;
+        this.stockAdjustmentAccumulator = stockAdjustmentAccumulator;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public ProductOutputDto create(ProductInputDto productInputDto) {
-        this.checkDuplicity(productInputDto.getName());
         var entity = ProductConverter.converter(productInputDto);
-        var entitySaved = this.productRepository.save(entity);
-        return ProductConverter.converter(entitySaved);
+        Product entitySaved;
+        try {
+            entitySaved = this.productRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            if (this.isDuplicatedName(e)) {
+                throw new AlreadyExistisException(productInputDto.getName());
+            }
+            throw e;
+        }
+        var productOutputDto = ProductConverter.converter(entitySaved);
+        this.eventPublisher.publishEvent(ProductChangedEvent.created(productOutputDto));
+        return productOutputDto;
+    }
+
+    @Override
+    @Transactional
+    public List<ProductCreationResultDto> createAll(List<ProductInputDto> productInputDtos) {
+        var normalizedNames = productInputDtos.stream()
+                .map(productInputDto -> Product.normalize(productInputDto.getName()))
+                .collect(Collectors.toSet());
+        var takenNames = new HashSet<>(this.productRepository.findExistingNames(normalizedNames));
+
+        var entities = new Product[productInputDtos.size()];
+        var results = new ProductCreationResultDto[productInputDtos.size()];
+        for (int i = 0; i < productInputDtos.size(); i++) {
+            var productInputDto = productInputDtos.get(i);
+            if (takenNames.add(Product.normalize(productInputDto.getName()))) {
+                entities[i] = ProductConverter.converter(productInputDto);
+            } else {
+                results[i] = ProductCreationResultDto.failed(new AlreadyExistisException(productInputDto.getName()));
+            }
+        }
+
+        try {
+            this.productRepository.saveAll(Arrays.stream(entities)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+            this.productRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (this.isDuplicatedName(e)) {
+                // a name was taken by a concurrent create after the check; only a new transaction can check again
+                throw new ConcurrentCreationException(e);
+            }
+            throw e;
+        }
+
+        var creationResults = new ArrayList<ProductCreationResultDto>(results.length);
+        for (int i = 0; i < results.length; i++) {
+            if (entities[i] != null) {
+                var productOutputDto = ProductConverter.converter(entities[i]);
+                this.eventPublisher.publishEvent(ProductChangedEvent.created(productOutputDto));
+                creationResults.add(ProductCreationResultDto.created(productOutputDto));
+            } else {
+                creationResults.add(results[i]);
+            }
+        }
+        return creationResults;
     }
 
     @Override
@@ -37,9 +139,71 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    public List<ProductOutputDto> findAllById(Collection<Long> ids) {
+        var distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        var products = new ArrayList<ProductOutputDto>(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += IDS_CHUNK_SIZE) {
+            var chunk = distinctIds.subList(from, Math.min(from + IDS_CHUNK_SIZE, distinctIds.size()));
+            this.productRepository.findAllById(chunk).forEach(product -> products.add(ProductConverter.converter(product)));
+        }
+        return products;
+    }
+
+    @Override
+    @Transactional
+    public ProductOutputDto update(ProductUpdateDto productUpdateDto) {
+        var id = productUpdateDto.getId();
+        boolean updated;
+        try {
+            updated = this.productUpdateRepository.update(productUpdateDto);
+        } catch (DataIntegrityViolationException e) {
+            if (this.isDuplicatedName(e)) {
+                throw new AlreadyExistisException(productUpdateDto.getName());
+            }
+            throw e;
+        }
+        if (!updated) {
+            var currentVersion = this.productUpdateRepository.findVersion(id)
+                    .orElseThrow(() -> new NotFoundException(id));
+            throw new VersionConflictException(id, productUpdateDto.getExpectedVersion(), currentVersion);
+        }
+        var productOutputDto = this.productRepository.findById(id)
+                .map(ProductConverter::converter)
+                .orElseThrow(() -> new NotFoundException(id));
+        this.eventPublisher.publishEvent(ProductChangedEvent.updated(productOutputDto));
+        return productOutputDto;
+    }
+
+    @Override
+    @Transactional
     public void delete(Long id) {
-        ProductOutputDto productOutputDto = this.findById(id);
-        this.productRepository.deleteById(productOutputDto.getId());
+        if (this.productRepository.deleteProductById(id) == 0) {
+            throw new NotFoundException(id);
+        }
+        this.eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    @Override
+    @Transactional
+    public List<Long> deleteAllById(Collection<Long> ids) {
+        var distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        var deletedIds = new HashSet<Long>();
+        for (int from = 0; from < distinctIds.size(); from += IDS_CHUNK_SIZE) {
+            var chunk = distinctIds.subList(from, Math.min(from + IDS_CHUNK_SIZE, distinctIds.size()));
+            var existingIds = this.productRepository.lockExistingIds(chunk);
+            if (!existingIds.isEmpty()) {
+                this.productRepository.deleteAllProductsById(existingIds);
+                deletedIds.addAll(existingIds);
+            }
+        }
+        var deletedInRequestOrder = new ArrayList<Long>(deletedIds.size());
+        for (Long id : distinctIds) {
+            if (deletedIds.contains(id)) {
+                this.eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+                deletedInRequestOrder.add(id);
+            }
+        }
+        return deletedInRequestOrder;
     }
 
     @Override
@@ -50,10 +214,91 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
     }
 
-    private void checkDuplicity(final String name) {
-        this.productRepository.findByNameIgnoreCase(name)
-                .ifPresent(e -> {
-                    throw new AlreadyExistisException(name);
-                });
+    @Override
+    public List<ProductOutputDto> findPage(Long afterId, int size) {
+        var products = this.productRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(size));
+        return products.stream()
+                .map(ProductConverter::converter)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ProductResponse> findResponsePage(Long afterId, int size) {
+        return this.productResponseRepository.findByIdGreaterThanOrderByIdAsc(afterId, size);
+    }
+
+    @Override
+    public List<ProductResponse> search(ProductSearchDto criteria, ProductResponse after, int size) {
+        return this.productResponseRepository.search(criteria, after, size);
+    }
+
+    @Override
+    @Transactional
+    public StockLevelDto adjustStock(Long id, int delta) {
+        if (this.stockAdjustmentAccumulator.accepts(id)) {
+            this.stockAdjustmentAccumulator.add(id, delta);
+            return StockLevelDto.deferred(id);
+        }
+        // the updated row stays locked until commit, so the stock read back is the one this adjustment wrote
+        var adjusted = this.productStockRepository.adjust(id, delta);
+        var quantityInStock = this.productStockRepository.findQuantityInStock(id)
+                .orElseThrow(() -> new NotFoundException(id));
+        if (!adjusted) {
+            throw new InsufficientStockException(id);
+        }
+        this.eventPublisher.publishEvent(ProductChangedEvent.stockAdjusted(id, quantityInStock));
+        return StockLevelDto.of(id, quantityInStock);
+    }
+
+    @Override
+    @Transactional
+    public List<StockAdjustmentResultDto> adjustStockAll(List<StockAdjustmentDto> adjustments) {
+        var results = new StockAdjustmentResultDto[adjustments.size()];
+        var written = new ArrayList<StockAdjustmentDto>(adjustments.size());
+        for (int i = 0; i < adjustments.size(); i++) {
+            var adjustment = adjustments.get(i);
+            if (this.stockAdjustmentAccumulator.accepts(adjustment.getId())) {
+                this.stockAdjustmentAccumulator.add(adjustment.getId(), adjustment.getDelta());
+                results[i] = StockAdjustmentResultDto.adjusted(StockLevelDto.deferred(adjustment.getId()));
+            } else {
+                written.add(adjustment);
+            }
+        }
+        if (written.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        var updateCounts = this.productStockRepository.adjustAll(written);
+        var quantities = this.productStockRepository.findQuantitiesInStock(written.stream()
+                .map(StockAdjustmentDto::getId)
+                .collect(Collectors.toSet()));
+        for (int i = 0, w = 0; i < results.length; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            var id = written.get(w).getId();
+            var updateCount = updateCounts[w++];
+            if (!quantities.containsKey(id)) {
+                results[i] = StockAdjustmentResultDto.failed(new NotFoundException(id));
+            } else if (updateCount == 0) {
+                results[i] = StockAdjustmentResultDto.failed(new InsufficientStockException(id));
+            } else {
+                // with repeated ids every adjustment reports the stock after the whole batch
+                this.eventPublisher.publishEvent(ProductChangedEvent.stockAdjusted(id, quantities.get(id)));
+                results[i] = StockAdjustmentResultDto.adjusted(StockLevelDto.of(id, quantities.get(id)));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private boolean isDuplicatedName(final DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            // raised by JDBC rather than Hibernate: only the driver's message names the constraint
+            var message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            return message != null && message.toLowerCase(Locale.ROOT).contains(Product.NORMALIZED_NAME_CONSTRAINT);
+        }
+        var constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null
+                && constraintName.toLowerCase(Locale.ROOT).contains(Product.NORMALIZED_NAME_CONSTRAINT);
     }
 }
@@ -0,0 +1,154 @@
+package com.example.grpc.service.impl;
+
+import com.example.grpc.config.ProductProperties;
+import com.example.grpc.repository.ProductStockRepository;
+import com.example.grpc.service.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Coalesces stock adjustments of the configured hot products. Each product gets striped counters, one stripe per
+ * thread hash and a cache line apart, so concurrent callers rarely touch the same counter; every flush drains the
+ * stripes and applies the net delta with a single UPDATE. Decrements beyond the stock are dropped and counted in
+ * {@code product.stock.rejected}, the rest of the delta is still applied.
+ */
+@Slf4j
+@Component
+public class StockAdjustmentAccumulator {
+    // longs per 64-byte cache line, so neighbouring stripes never share one
+    private static final int PADDING = 8;
+
+    private final ProductStockRepository productStockRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter rejectedCounter;
+
+    private final Map<Long, AtomicLongArray> stripesById = new HashMap<>();
+
+    private final int stripeMask;
+
+    private final ScheduledExecutorService flushExecutor;
+
+    public StockAdjustmentAccumulator(ProductProperties productProperties, ProductStockRepository productStockRepository,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.productStockRepository = productStockRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rejectedCounter = Counter.builder("product.stock.rejected")
+                .description("Decrements of hot products dropped because the stock would go negative")
+                .register(meterRegistry);
+        var stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        this.stripeMask = stripes - 1;
+        var stockProperties = productProperties.getStock();
+        stockProperties.getHotIds().forEach(id -> this.stripesById.put(id, new AtomicLongArray(stripes * PADDING)));
+        if (this.stripesById.isEmpty()) {
+            this.flushExecutor = null;
+            return;
+        }
+        var flushMillis = stockProperties.getFlushInterval().toMillis();
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("product-stock-flush-"));
+        this.flushExecutor.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean accepts(Long id) {
+        return this.stripesById.containsKey(id);
+    }
+
+    public void add(Long id, int delta) {
+        var stripe = (int) Thread.currentThread().getId() & this.stripeMask;
+        this.stripesById.get(id).getAndAdd(stripe * PADDING, delta);
+    }
+
+    public void flush() {
+        this.stripesById.forEach(this::flush);
+    }
+
+    private void flush(Long id, AtomicLongArray stripes) {
+        long drained = 0;
+        for (int i = 0; i < stripes.length(); i += PADDING) {
+            drained += stripes.getAndSet(i, 0);
+        }
+        if (drained == 0) {
+            return;
+        }
+        var delta = drained;
+        var flushed = new AtomicReference<ProductChangedEvent>();
+        Integer quantityInStock;
+        try {
+            // the row stays locked from the read to the write, so the feasible part computed here is what gets applied;
+            // the event is built under the same lock to order it after every earlier change of the row
+            quantityInStock = this.transactionTemplate.execute(status -> {
+                var current = this.productStockRepository.lockQuantityInStock(id);
+                current.ifPresent(quantity -> {
+                    var applied = feasible(delta, quantity);
+                    if (applied != 0) {
+                        this.productStockRepository.adjust(id, applied);
+                        flushed.set(ProductChangedEvent.stockAdjusted(id, quantity + applied));
+                    }
+                });
+                return current.orElse(null);
+            });
+        } catch (RuntimeException e) {
+            // keep the delta for the next flush
+            stripes.getAndAdd(0, delta);
+            log.warn("Failed to flush stock adjustment of {} for product {}", delta, id, e);
+            return;
+        }
+        if (quantityInStock == null) {
+            log.warn("Discarding stock adjustment of {} for product {}: product missing", delta, id);
+            return;
+        }
+        var applied = feasible(delta, quantityInStock);
+        if (applied < delta) {
+            // beyond an int: written in parts, one per flush
+            stripes.getAndAdd(0, delta - applied);
+        } else if (applied > delta) {
+            this.rejectedCounter.increment(applied - delta);
+            log.warn("Dropped {} of the stock adjustment of {} for product {}: stock would go negative",
+                    applied - delta, delta, id);
+        }
+        if (applied == 0) {
+            return;
+        }
+        try {
+            this.eventPublisher.publishEvent(flushed.get());
+        } catch (RuntimeException e) {
+            // the delta is written; watchers and the catalog snapshot catch up on the next change or reload
+            log.warn("Failed to publish the stock of product {} after a flush", id, e);
+        }
+    }
+
+    /**
+     * The part of the delta that keeps the stock between zero and {@link Integer#MAX_VALUE}.
+     */
+    private static int feasible(long delta, int quantityInStock) {
+        return (int) Math.max(-quantityInStock, Math.min(Integer.MAX_VALUE - quantityInStock, delta));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.flushExecutor != null) {
+            this.flushExecutor.shutdown();
+            this.flush();
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.grpc.startup;
+
+import com.example.grpc.AdjustStockBatchRequest;
+import com.example.grpc.AdjustStockRequest;
+import com.example.grpc.DeleteBatchRequest;
+import com.example.grpc.EmptyRequest;
+import com.example.grpc.FindByIdsRequest;
+import com.example.grpc.PageRequest;
+import com.example.grpc.ProductRequest;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.RequestById;
+import com.example.grpc.SearchRequest;
+import com.example.grpc.StreamAllRequest;
+import com.example.grpc.UpdateProductRequest;
+import com.example.grpc.cache.ProductResponseCache;
+import com.example.grpc.config.ProductProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.grpc.Channel;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.services.HealthStatusManager;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.config.GrpcServerProperties;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the gRPC health service at NOT_SERVING until the application has warmed up: the minimum idle database
+ * connections are opened, the hottest products are loaded into the FindById cache and every product method is called
+ * in-process for a number of rounds, so the JIT, the marshallers and the statement caches are ready before the
+ * first client call. Runs before the application is ready, so the readiness probe waits for it too.
+ */
+@Slf4j
+@Component
+public class ProductWarmup implements ApplicationRunner {
+    /**
+     * Marks warm-up calls, e.g. so they do not count as the first call.
+     */
+    public static final Metadata.Key<String> WARMUP_HEADER = Metadata.Key.of("x-warmup", Metadata.ASCII_STRING_MARSHALLER);
+
+    @SuppressWarnings("deprecation") // see healthStatusManager
+    private static final List<String> SERVICES =
+            List.of(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, ProductServiceGrpc.SERVICE_NAME);
+
+    // ids are generated from 1, so nothing is ever deleted or adjusted by the probes
+    private static final long UNKNOWN_ID = -1;
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final int PAGE_SIZE = 20;
+
+    private final ProductProperties.Warmup properties;
+
+    // the starter's health auto-configuration only exposes the deprecated io.grpc.services type as a bean
+    @SuppressWarnings("deprecation")
+    private final HealthStatusManager healthStatusManager;
+
+    private final GrpcServerProperties grpcServerProperties;
+
+    private final DataSource dataSource;
+
+    private final ProductResponseCache productResponseCache;
+
+    @SuppressWarnings("deprecation") // see healthStatusManager
+    public ProductWarmup(ProductProperties productProperties, HealthStatusManager healthStatusManager,
+                         GrpcServerProperties grpcServerProperties, DataSource dataSource,
+                         ProductResponseCache productResponseCache) {
+        this.properties = productProperties.getWarmup();
+        this.healthStatusManager = healthStatusManager;
+        this.grpcServerProperties = grpcServerProperties;
+        this.dataSource = dataSource;
+        this.productResponseCache = productResponseCache;
+        // created before the servers start, so no client ever sees SERVING too early
+        SERVICES.forEach(service -> healthStatusManager.setStatus(service, ServingStatus.NOT_SERVING));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (this.properties.isEnabled()) {
+            try {
+                this.warmUp();
+            } catch (RuntimeException e) {
+                log.warn("Warm-up failed, serving anyway", e);
+            }
+        }
+        SERVICES.forEach(service -> this.healthStatusManager.setStatus(service, ServingStatus.SERVING));
+    }
+
+    @EventListener
+    public void onContextClosed(ContextClosedEvent event) {
+        this.healthStatusManager.enterTerminalState();
+        var hotIdsFile = this.properties.getHotIdsFile();
+        if (hotIdsFile == null) {
+            return;
+        }
+        var ids = this.productResponseCache.hottestIds(this.properties.getHotProducts());
+        try {
+            Files.write(hotIdsFile, ids.stream().map(String::valueOf).collect(Collectors.toList()));
+        } catch (IOException e) {
+            log.warn("Could not save the hot product ids to {}", hotIdsFile, e);
+        }
+    }
+
+    private void warmUp() {
+        var start = System.nanoTime();
+        var connections = this.openMinimumIdleConnections();
+        var inProcessName = this.grpcServerProperties.getInProcessName();
+        if (inProcessName == null || inProcessName.isBlank()) {
+            log.warn("Warm-up calls skipped: grpc.server.in-process-name is not set");
+            return;
+        }
+        var headers = new Metadata();
+        headers.put(WARMUP_HEADER, "true");
+        var channel = InProcessChannelBuilder.forName(inProcessName).build();
+        try {
+            var calls = new WarmupCalls(channel, headers, Deadline.after(this.properties.getTimeout().toNanos(),
+                    TimeUnit.NANOSECONDS));
+            var hotIds = calls.loadHotProducts(this.readHotIds(), this.properties.getHotProducts());
+            var rounds = 0;
+            while (rounds < this.properties.getIterations() && !calls.deadline.isExpired()) {
+                calls.round(hotIds, rounds++);
+            }
+            log.info("Warm-up finished in {} ms: {} connections opened, {} products cached, {} rounds, "
+                            + "{} calls, unexpected failures {}",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), connections, hotIds.size(), rounds,
+                    calls.calls, calls.failures);
+        } finally {
+            channel.shutdownNow();
+        }
+    }
+
+    /**
+     * Holds the pool's minimum idle connections at once, so all of them are opened now rather than on demand.
+     */
+    private int openMinimumIdleConnections() {
+        var minimumIdle = this.dataSource instanceof HikariDataSource
+                ? ((HikariDataSource) this.dataSource).getMinimumIdle()
+                : 1;
+        var connections = new ArrayList<Connection>(minimumIdle);
+        try {
+            for (int i = 0; i < minimumIdle; i++) {
+                connections.add(this.dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Could not open the minimum idle connections", e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Could not release a warm-up connection", e);
+                }
+            }
+        }
+        return connections.size();
+    }
+
+    private List<Long> readHotIds() {
+        var hotIdsFile = this.properties.getHotIdsFile();
+        if (hotIdsFile == null || !Files.isReadable(hotIdsFile)) {
+            return List.of();
+        }
+        try (var lines = Files.lines(hotIdsFile)) {
+            return lines.map(String::trim)
+                    .filter(line -> line.matches("\\d+"))
+                    .map(Long::valueOf)
+                    .collect(Collectors.toList());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read the hot product ids from {}", hotIdsFile, e);
+            return List.of();
+        }
+    }
+
+    private static final class WarmupCalls {
+        private final ProductServiceGrpc.ProductServiceBlockingStub blockingStub;
+
+        private final ProductServiceGrpc.ProductServiceStub asyncStub;
+
+        private final Deadline deadline;
+
+        private final Map<Status.Code, Integer> failures = new EnumMap<>(Status.Code.class);
+
+        private int calls;
+
+        private WarmupCalls(Channel channel, Metadata headers, Deadline deadline) {
+            var interceptor = MetadataUtils.newAttachHeadersInterceptor(headers);
+            this.blockingStub = ProductServiceGrpc.newBlockingStub(channel).withInterceptors(interceptor)
+                    .withDeadline(deadline);
+            this.asyncStub = ProductServiceGrpc.newStub(channel).withInterceptors(interceptor).withDeadline(deadline);
+            this.deadline = deadline;
+        }
+
+        /**
+         * Loads the given ids, topped up with the first products by id, into the FindById cache through FindByIds.
+         */
+        private List<Long> loadHotProducts(List<Long> savedIds, int limit) {
+            var ids = new LinkedHashSet<Long>();
+            for (int from = 0; from < savedIds.size() && ids.size() < limit; from += BATCH_SIZE) {
+                var batch = savedIds.subList(from, Math.min(savedIds.size(), from + BATCH_SIZE));
+                this.call(() -> this.blockingStub.findByIds(FindByIdsRequest.newBuilder().addAllIds(batch).build())
+                        .getResultsList()
+                        .forEach(lookup -> {
+                            if (lookup.hasProduct() && ids.size() < limit) {
+                                ids.add(lookup.getId());
+                            }
+                        }));
+            }
+            var pageToken = "";
+            while (ids.size() < limit && !this.deadline.isExpired()) {
+                var page = this.call(this.blockingStub::findPage, PageRequest.newBuilder()
+                        .setPageToken(pageToken)
+                        .setPageSize(Math.min(BATCH_SIZE, limit - ids.size()))
+                        .build());
+                if (page == null) {
+                    break;
+                }
+                var pageIds = page.getProductsList().stream().map(ProductResponse::getId).collect(Collectors.toList());
+                pageIds.removeIf(ids::contains);
+                if (!pageIds.isEmpty()) {
+                    this.call(this.blockingStub::findByIds, FindByIdsRequest.newBuilder().addAllIds(pageIds).build());
+                    ids.addAll(pageIds);
+                }
+                if (page.getNextPageToken().isEmpty()) {
+                    break;
+                }
+                pageToken = page.getNextPageToken();
+            }
+            return List.copyOf(ids);
+        }
+
+        private void round(List<Long> hotIds, int round) {
+            var id = hotIds.isEmpty() ? UNKNOWN_ID : hotIds.get(round % hotIds.size());
+            var byId = RequestById.newBuilder().setId(id).build();
+            var unknownId = RequestById.newBuilder().setId(UNKNOWN_ID).build();
+
+            this.call(this.blockingStub::findById, byId);
+            this.call(this.blockingStub::findByIds, FindByIdsRequest.newBuilder().addIds(id).addIds(UNKNOWN_ID).build());
+            this.call(this.blockingStub::findPage, PageRequest.newBuilder().setPageSize(PAGE_SIZE).build());
+            // the whole-catalog reads run once and StreamAll stops after one chunk, so the cost does not grow with
+            // the catalog times the rounds
+            if (round == 0) {
+                this.call(this.blockingStub::findAll, EmptyRequest.getDefaultInstance());
+            }
+            this.callFirstChunk(() -> this.blockingStub.streamAll(StreamAllRequest.newBuilder()
+                    .setChunkSize(PAGE_SIZE)
+                    .build()));
+            this.call(() -> this.blockingStub.search(SearchRequest.newBuilder()
+                            .setSort(SearchRequest.Sort.PRICE)
+                            .setLimit(PAGE_SIZE)
+                            .build())
+                    .forEachRemaining(chunk -> {
+                    }));
+            this.call(this.blockingStub::update, UpdateProductRequest.newBuilder().setId(UNKNOWN_ID).build());
+            this.call(this.blockingStub::delete, unknownId);
+            this.call(this.blockingStub::deleteBatch, DeleteBatchRequest.newBuilder().addIds(UNKNOWN_ID).build());
+            var adjustment = AdjustStockRequest.newBuilder().setId(UNKNOWN_ID).build();
+            this.call(this.blockingStub::adjustStock, adjustment);
+            this.call(this.blockingStub::adjustStockBatch,
+                    AdjustStockBatchRequest.newBuilder().addAdjustments(adjustment).build());
+            // empty streams: the bulk create paths run without creating anything
+            this.callEmptyStream(this.asyncStub::createBatch);
+            this.callEmptyStream(this.asyncStub::createStream);
+        }
+
+        private <ReqT, RespT> RespT call(Function<ReqT, RespT> method, ReqT request) {
+            var response = new ArrayList<RespT>(1);
+            this.call(() -> response.add(method.apply(request)));
+            return response.isEmpty() ? null : response.get(0);
+        }
+
+        private void call(Runnable call) {
+            this.calls++;
+            try {
+                call.run();
+            } catch (StatusRuntimeException e) {
+                var code = e.getStatus().getCode();
+                if (code != Status.Code.NOT_FOUND) {
+                    this.failures.merge(code, 1, Integer::sum);
+                }
+            }
+        }
+
+        /**
+         * Reads the first message of a server stream, then cancels the rest.
+         */
+        private void callFirstChunk(Supplier<Iterator<?>> method) {
+            var context = Context.current().withCancellation();
+            try {
+                context.run(() -> this.call(() -> {
+                    var chunks = method.get();
+                    if (chunks.hasNext()) {
+                        chunks.next();
+                    }
+                }));
+            } finally {
+                context.cancel(null);
+            }
+        }
+
+        private <RespT> void callEmptyStream(Function<StreamObserver<RespT>, StreamObserver<ProductRequest>> method) {
+            var done = new CompletableFuture<Void>();
+            this.call(() -> {
+                method.apply(new StreamObserver<>() {
+                    @Override
+                    public void onNext(RespT value) {
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        done.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        done.complete(null);
+                    }
+                }).onCompleted();
+                try {
+                    done.get(this.deadline.timeRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    throw Status.fromThrowable(e.getCause()).asRuntimeException();
+                } catch (TimeoutException e) {
+                    throw Status.DEADLINE_EXCEEDED.asRuntimeException();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw Status.CANCELLED.withCause(e).asRuntimeException();
+                }
+            });
+        }
+    }
+}
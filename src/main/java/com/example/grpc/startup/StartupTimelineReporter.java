@@ -0,0 +1,129 @@
+package com.example.grpc.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Logs the startup phases recorded by a {@link BufferingApplicationStartup} (see
+ * {@code SpringBootWithGrpcApplication#main}) once the application is ready, and the time from JVM start to the
+ * first completed gRPC call, also published as {@code application.first.rpc.time}.
+ */
+@Slf4j
+@Component
+public class StartupTimelineReporter {
+    private static final String REFRESH_STEP = "spring.context.refresh";
+
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+
+    private static final int SLOWEST_BEANS = 10;
+
+    private volatile long firstCallMillis = -1;
+
+    public StartupTimelineReporter(MeterRegistry meterRegistry) {
+        TimeGauge.builder("application.first.rpc.time", this, TimeUnit.MILLISECONDS,
+                        reporter -> reporter.firstCallMillis < 0 ? Double.NaN : reporter.firstCallMillis)
+                .description("Time from JVM start until the first gRPC call completed")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        var readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        var applicationStartup = event.getApplicationContext().getApplicationStartup();
+        if (applicationStartup instanceof BufferingApplicationStartup) {
+            log.info("Ready {} ms after JVM start.{}", readyMillis,
+                    this.report(((BufferingApplicationStartup) applicationStartup).getBufferedTimeline()));
+        } else {
+            log.info("Ready {} ms after JVM start", readyMillis);
+        }
+    }
+
+    public void firstCallCompleted() {
+        this.firstCallMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("First gRPC call completed {} ms after JVM start", this.firstCallMillis);
+    }
+
+    /**
+     * JVM uptime in milliseconds when the first gRPC call completed, or -1 before that.
+     */
+    public long firstCallMillis() {
+        return this.firstCallMillis;
+    }
+
+    private String report(StartupTimeline timeline) {
+        var start = timeline.getStartTime();
+        var events = timeline.getEvents();
+        var report = new StringBuilder();
+        report.append(String.format("%n  %8s %8s  %s", "start ms", "ms", "phase"));
+        var roots = events.stream()
+                .filter(event -> event.getStartupStep().getParentId() == null)
+                .sorted(Comparator.comparing(TimelineEvent::getStartTime))
+                .collect(Collectors.toList());
+        for (TimelineEvent root : roots) {
+            this.appendPhase(report, start, root.getStartTime(), root.getDuration(), root.getStartupStep().getName(), "");
+            if (REFRESH_STEP.equals(root.getStartupStep().getName())) {
+                this.appendRefreshPhases(report, start, events, root.getStartupStep().getId());
+            }
+        }
+
+        var slowestBeans = events.stream()
+                .filter(event -> BEAN_STEP.equals(event.getStartupStep().getName()))
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .collect(Collectors.toList());
+        report.append(String.format("%n  slowest beans (including their dependencies):"));
+        for (TimelineEvent bean : slowestBeans) {
+            String beanName = null;
+            for (var tag : bean.getStartupStep().getTags()) {
+                if ("beanName".equals(tag.getKey())) {
+                    beanName = tag.getValue();
+                }
+            }
+            report.append(String.format("%n  %8s %8d  %s", "", bean.getDuration().toMillis(), beanName));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Direct children of the context refresh, merged by step name.
+     */
+    private void appendRefreshPhases(StringBuilder report, Instant start, List<TimelineEvent> events, long refreshId) {
+        Map<String, Duration> durations = new LinkedHashMap<>();
+        Map<String, Instant> starts = new LinkedHashMap<>();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        events.stream()
+                .filter(event -> Long.valueOf(refreshId).equals(event.getStartupStep().getParentId()))
+                .sorted(Comparator.comparing(TimelineEvent::getStartTime))
+                .forEach(event -> {
+                    var name = event.getStartupStep().getName();
+                    durations.merge(name, event.getDuration(), Duration::plus);
+                    starts.putIfAbsent(name, event.getStartTime());
+                    counts.merge(name, 1, Integer::sum);
+                });
+        durations.forEach((name, duration) -> this.appendPhase(report, start, starts.get(name), duration,
+                counts.get(name) > 1 ? name + " (" + counts.get(name) + " steps)" : name, "  "));
+    }
+
+    private void appendPhase(StringBuilder report, Instant start, Instant phaseStart, Duration duration, String name,
+                             String indent) {
+        report.append(String.format("%n  %8d %8d  %s%s", Duration.between(start, phaseStart).toMillis(),
+                duration.toMillis(), indent, name));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.grpc.watch;
+
+import com.example.grpc.ProductEvent;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.config.ProductProperties;
+import com.example.grpc.service.event.LatestChangeFilter;
+import com.example.grpc.service.event.ProductChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Numbers committed product changes with a monotonically increasing revision, keeps the latest ones for resuming
+ * watchers and fans them out to the subscribed watchers. A change delivered after a later change of the same product
+ * is dropped, so revisions never put a product's changes out of commit order.
+ */
+@Component
+public class ProductEventLog {
+    private final ProductEvent[] history;
+
+    private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+
+    private final LatestChangeFilter latestChanges = new LatestChangeFilter();
+
+    // revisions start at boot time in microseconds, so a revision handed out by a previous process is never
+    // mistaken for one of this process and always falls back to a snapshot
+    private final long startRevision = System.currentTimeMillis() * 1000;
+
+    private long revision = this.startRevision;
+
+    public ProductEventLog(ProductProperties productProperties) {
+        this.history = new ProductEvent[productProperties.getWatch().getHistorySize()];
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (!this.latestChanges.isLatest(event)) {
+            return;
+        }
+        var productEvent = ProductEvent.newBuilder()
+                .setRevision(++this.revision)
+                .setId(event.getId());
+        if (event.getType() == ProductChangedEvent.Type.CREATED || event.getType() == ProductChangedEvent.Type.UPDATED) {
+            var product = event.getProduct();
+            productEvent.setType(event.getType() == ProductChangedEvent.Type.CREATED
+                            ? ProductEvent.Type.CREATED
+                            : ProductEvent.Type.UPDATED)
+                    .setProduct(ProductResponse.newBuilder()
+                            .setId(product.getId())
+                            .setName(product.getName())
+                            .setPrice(product.getPrice())
+                            .setQuantityInStock(product.getQuantityInStock())
+                            .setVersion(product.getVersion()));
+        } else if (event.getType() == ProductChangedEvent.Type.STOCK_ADJUSTED) {
+            productEvent.setType(ProductEvent.Type.STOCK_ADJUSTED)
+                    .setProduct(ProductResponse.newBuilder()
+                            .setId(event.getId())
+                            .setQuantityInStock(event.getQuantityInStock()));
+        } else {
+            productEvent.setType(ProductEvent.Type.DELETED);
+        }
+        var built = productEvent.build();
+        if (this.history.length > 0) {
+            this.history[(int) (this.revision % this.history.length)] = built;
+        }
+        this.subscribers.removeIf(subscriber -> !subscriber.offer(built));
+    }
+
+    /**
+     * Registers the subscriber when every event after {@code resumeRevision} is still retained, and offers those events
+     * right away. Returns false, with the subscriber not registered, when they are not retained or the subscriber
+     * refuses them; it must then start from a snapshot.
+     */
+    public synchronized boolean subscribe(Subscriber subscriber, long resumeRevision) {
+        if (!this.canResumeFrom(resumeRevision)) {
+            return false;
+        }
+        for (var retained = resumeRevision + 1; retained <= this.revision; retained++) {
+            if (!subscriber.offer(this.history[(int) (retained % this.history.length)])) {
+                return false;
+            }
+        }
+        this.subscribers.add(subscriber);
+        return true;
+    }
+
+    public synchronized void unsubscribe(Subscriber subscriber) {
+        this.subscribers.remove(subscriber);
+    }
+
+    public synchronized long currentRevision() {
+        return this.revision;
+    }
+
+    private boolean canResumeFrom(long resumeRevision) {
+        var retained = Math.min(this.revision - this.startRevision, this.history.length);
+        return resumeRevision > 0 && resumeRevision <= this.revision && resumeRevision >= this.revision - retained;
+    }
+
+    public interface Subscriber {
+        /**
+         * Buffers the event for delivery; returns false when the subscriber can no longer keep up and is dropped.
+         */
+        boolean offer(ProductEvent event);
+    }
+}
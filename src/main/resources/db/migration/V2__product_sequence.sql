@@ -0,0 +1 @@
+CREATE SEQUENCE product_seq START WITH 101 INCREMENT BY 50;
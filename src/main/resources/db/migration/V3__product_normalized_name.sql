@@ -0,0 +1,7 @@
+ALTER TABLE product ADD COLUMN normalized_name VARCHAR(255);
+
+UPDATE product SET normalized_name = LOWER(name);
+
+ALTER TABLE product ALTER COLUMN normalized_name SET NOT NULL;
+
+ALTER TABLE product ADD CONSTRAINT ux_product_normalized_name UNIQUE (normalized_name);
@@ -0,0 +1,3 @@
+CREATE INDEX ix_product_price ON product (price);
+
+CREATE INDEX ix_product_quantity_in_stock ON product (quantity_in_stock);
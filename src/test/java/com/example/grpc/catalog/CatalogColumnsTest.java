@@ -0,0 +1,75 @@
+package com.example.grpc.catalog;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductResponseList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatalogColumnsTest {
+
+    @Test
+    @DisplayName("columns merged batch by batch serialize exactly like the list built from scratch")
+    public void mergedColumnsMatchAFreshEncoding() throws Exception {
+        var random = new Random(42);
+        var expected = new TreeMap<Long, ProductResponse>();
+        for (long id = 1; id <= 50; id++) {
+            expected.put(id, this.product(id, random));
+        }
+        var columns = CatalogColumns.of(new ArrayList<>(expected.values()), UnaryOperator.identity());
+
+        for (int batch = 0; batch < 100; batch++) {
+            var changes = new TreeMap<Long, ProductResponse>();
+            for (int i = random.nextInt(10); i >= 0; i--) {
+                long id = 1 + random.nextInt(80);
+                if (random.nextBoolean()) {
+                    var product = this.product(id, random);
+                    expected.put(id, product);
+                    changes.put(id, product);
+                } else {
+                    expected.remove(id);
+                    changes.put(id, null);
+                }
+            }
+            columns = columns.apply(changes);
+        }
+
+        assertThat(ProductResponseList.parseFrom(columns.bytes()).getProductsList())
+                .containsExactlyElementsOf(expected.values());
+        assertThat(columns.bytes())
+                .isEqualTo(ProductResponseList.newBuilder().addAllProducts(expected.values()).build().toByteArray());
+        assertThat(columns.size()).isEqualTo(expected.size());
+    }
+
+    @Test
+    @DisplayName("memory estimate grows with the catalog")
+    public void memoryEstimate() {
+        var random = new Random(7);
+        List<ProductResponse> products = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            products.add(this.product(id, random));
+        }
+        products.sort(Comparator.comparingLong(ProductResponse::getId));
+        var columns = CatalogColumns.of(products, UnaryOperator.identity());
+
+        assertThat(columns.estimatedMemoryBytes()).isGreaterThan(1000L * (24 + columns.bytes().length / 1000));
+        assertThat(CatalogColumns.EMPTY.estimatedMemoryBytes()).isLessThan(columns.estimatedMemoryBytes() / 1000);
+    }
+
+    private ProductResponse product(long id, Random random) {
+        return ProductResponse.newBuilder()
+                .setId(id)
+                .setName("Produto " + id + " " + "x".repeat(random.nextInt(200)))
+                .setPrice(random.nextInt(100_000) / 100.0)
+                .setQuantityInStock(random.nextInt(1000))
+                .build();
+    }
+}
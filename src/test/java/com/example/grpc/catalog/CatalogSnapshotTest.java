@@ -0,0 +1,99 @@
+package com.example.grpc.catalog;
+
+import com.example.grpc.AdjustStockRequest;
+import com.example.grpc.EmptyRequest;
+import com.example.grpc.ProductRequest;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.RequestById;
+import com.example.grpc.StreamAllRequest;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.tuple;
+
+@SpringBootTest(properties = {
+        "product.snapshot.enabled=true",
+        "grpc.server.in-process-name=catalog-snapshot",
+        "grpc.client.inProcess.address=in-process:catalog-snapshot"})
+@TestPropertySource("classpath:application-test.properties")
+@DirtiesContext
+public class CatalogSnapshotTest {
+
+    @GrpcClient("inProcess")
+    private ProductServiceGrpc.ProductServiceBlockingStub productServiceGrpcStub;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void init() {
+        this.flyway.clean();
+        this.flyway.migrate();
+        this.catalogSnapshot.reconcile();
+    }
+
+    @Test
+    @DisplayName("when the snapshot is enabled, FindAll serves it and follows creates, deletes and stock changes")
+    public void findAllFollowsChanges() {
+        assertThat(this.findAll()).isEqualTo(this.streamAll()).hasSize(2);
+
+        var created = this.productServiceGrpcStub.create(ProductRequest.newBuilder()
+                .setName("Fone Bluetooth")
+                .setPrice(199.9)
+                .setQuantityInStock(7)
+                .build());
+        this.productServiceGrpcStub.delete(RequestById.newBuilder().setId(1l).build());
+        this.productServiceGrpcStub.adjustStock(AdjustStockRequest.newBuilder().setId(2l).setDelta(-3).build());
+        this.catalogSnapshot.awaitPendingChanges();
+
+        assertThat(this.findAll())
+                .isEqualTo(this.streamAll())
+                .extracting(ProductResponse::getId, ProductResponse::getQuantityInStock)
+                .containsExactly(tuple(2l, 7), tuple(created.getId(), 7));
+    }
+
+    @Test
+    @DisplayName("when the table changes behind the service's back, reconcile picks the change up")
+    public void reconcileCorrectsTheSnapshot() {
+        this.jdbcTemplate.update("update product set quantity_in_stock = 0");
+        this.jdbcTemplate.update("delete from product where id = 1");
+        assertThat(this.findAll()).hasSize(2);
+
+        this.catalogSnapshot.reconcile();
+
+        assertThat(this.findAll())
+                .isEqualTo(this.streamAll())
+                .extracting(ProductResponse::getId, ProductResponse::getQuantityInStock)
+                .containsExactly(tuple(2l, 0));
+    }
+
+    private List<ProductResponse> findAll() {
+        return this.productServiceGrpcStub.findAll(EmptyRequest.newBuilder().build()).getProductsList();
+    }
+
+    private List<ProductResponse> streamAll() {
+        var products = new ArrayList<ProductResponse>();
+        this.productServiceGrpcStub.streamAll(StreamAllRequest.newBuilder().build())
+                .forEachRemaining(chunk -> products.addAll(chunk.getProductsList()));
+        return products;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.grpc.config;
+
+import com.example.grpc.resource.interceptor.CallAdmissionInterceptor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GrpcServerExecutorConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(GrpcServerExecutorConfiguration.class, ExecutorProperties.class)
+            .withBean(DataSource.class, () -> Mockito.mock(DataSource.class));
+
+    @Test
+    @DisplayName("the bounded executor and its admission interceptor are enabled together, whatever the mode's case")
+    public void boundedModeIgnoresCase() {
+        this.contextRunner.withPropertyValues("grpc.server.executor.mode=BOUNDED").run(context -> {
+            assertThat(context).hasSingleBean(ExecutorService.class);
+            assertThat(context).hasSingleBean(CallAdmissionInterceptor.class);
+        });
+        this.contextRunner.withPropertyValues("grpc.server.executor.mode=Default").run(context -> {
+            assertThat(context).doesNotHaveBean(ExecutorService.class);
+            assertThat(context).doesNotHaveBean(CallAdmissionInterceptor.class);
+        });
+    }
+
+    @EnableConfigurationProperties(GrpcServerExecutorProperties.class)
+    static class ExecutorProperties {
+    }
+}
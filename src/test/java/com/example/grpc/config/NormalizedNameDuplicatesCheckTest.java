@@ -0,0 +1,56 @@
+package com.example.grpc.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NormalizedNameDuplicatesCheckTest {
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    public void init() {
+        this.dataSource = new JdbcDataSource();
+        this.dataSource.setURL("jdbc:h2:mem:normalized-name-check;DB_CLOSE_DELAY=-1");
+        this.flyway(null).clean();
+        this.flyway("2").migrate();
+    }
+
+    @Test
+    @DisplayName("when names collide ignoring case, the migration stops before V3 and lists them")
+    public void duplicatesStopTheMigration() {
+        new JdbcTemplate(this.dataSource).update(
+                "insert into product (id, name, price, quantity_in_stock) values (3, 'Celular', 900.0, 1)");
+
+        assertThatThrownBy(() -> this.flyway(null).migrate())
+                .isInstanceOf(FlywayException.class)
+                .hasMessageContaining("celular (2)");
+        assertThat(this.flyway(null).info().current().getVersion().getVersion()).isEqualTo("2");
+    }
+
+    @Test
+    @DisplayName("when names are distinct ignoring case, the migration runs through")
+    public void distinctNamesMigrate() {
+        this.flyway(null).migrate();
+
+        assertThat(this.flyway(null).info().pending()).isEmpty();
+    }
+
+    private Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(this.dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .callbacks(new NormalizedNameDuplicatesCheck());
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+}
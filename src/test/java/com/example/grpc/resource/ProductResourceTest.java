@@ -1,7 +1,21 @@
 package com.example.grpc.resource;
 
 import com.example.grpc.*;
+import com.example.grpc.cache.IdempotentResponseCache;
+import com.example.grpc.cache.ProductResponseCache;
+import com.example.grpc.resource.interceptor.IdempotencyKeyInterceptor;
+import com.example.grpc.resource.interceptor.ReturnPreferenceInterceptor;
+import com.google.protobuf.DoubleValue;
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.MeterRegistry;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.assertj.core.api.Assertions;
 import org.flywaydb.core.Flyway;
@@ -14,6 +28,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.AssertionsForClassTypes.tuple;
@@ -27,17 +48,33 @@ public class ProductResourceTest {
     @GrpcClient("inProcess")
     private ProductServiceGrpc.ProductServiceBlockingStub productServiceGrpcStub;
 
+    @GrpcClient("inProcess")
+    private ProductServiceGrpc.ProductServiceStub productServiceAsyncStub;
+
     @Autowired
     private Flyway flyway;
 
+    @Autowired
+    private ProductResponseCache productResponseCache;
+
+    @Autowired
+    private IdempotentResponseCache idempotentResponseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final String ERROR_MESSAGE = "ALREADY_EXISTS: Produto Televisão LG já cadastrado no Sistema.";
 
     private static final String ERROR_MESSAGE_NOT_FOUND = "NOT_FOUND: Produto com ID %s não encontrado.";
 
+    private static final String ERROR_MESSAGE_INVALID_PAGE_TOKEN = "INVALID_ARGUMENT: Token de página %s inválido.";
+
     @BeforeEach
     public void init() {
         this.flyway.clean();
         this.flyway.migrate();
+        this.productResponseCache.invalidateAll();
+        this.idempotentResponseCache.invalidateAll();
     }
 
     @Test
@@ -104,6 +141,66 @@ public class ProductResourceTest {
 
     }
 
+    @Test
+    @DisplayName("when find products by ids, should return them in request order with not found markers")
+    public void findByIdsWithSuccess() {
+        var request = FindByIdsRequest.newBuilder()
+                .addAllIds(List.of(2l, 100l, 1l, 2l))
+                .build();
+
+        var response = this.productServiceGrpcStub.findByIds(request);
+
+        assertThat(response.getResultsList())
+                .extracting(ProductLookup::getId, ProductLookup::hasProduct)
+                .containsExactly(tuple(2l, true), tuple(100l, false), tuple(1l, true), tuple(2l, true));
+        assertThat(response.getResults(0).getProduct().getName()).isEqualTo("Televisão LG");
+        assertThat(response.getResults(1).getError().getCode()).isEqualTo(Status.Code.NOT_FOUND.value());
+        assertThat(response.getResults(1).getError().getMessage())
+                .isEqualTo("Produto com ID 100 não encontrado.");
+        assertThat(response.getResults(2).getProduct().getName()).isEqualTo("CELULAR");
+    }
+
+    @Test
+    @DisplayName("when a call fails with a business exception, should record its status and exception")
+    public void findByIdWithErrorRecordsMetrics() {
+        var requestById = RequestById.newBuilder()
+                .setId(100L)
+                .build();
+
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.productServiceGrpcStub.findById(requestById));
+
+        var timer = this.meterRegistry.find("grpc.server.calls")
+                .tags("method", "FindById", "status", "NOT_FOUND")
+                .timer();
+        var businessExceptions = this.meterRegistry.find("grpc.server.business.exceptions")
+                .tags("method", "FindById", "exception", "NotFoundException")
+                .counter();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThan(0);
+        assertThat(businessExceptions).isNotNull();
+        assertThat(businessExceptions.count()).isGreaterThan(0);
+        assertThat(this.meterRegistry.find("grpc.server.calls.in.flight").tags("method", "FindById").gauge())
+                .isNotNull();
+    }
+
+    @Test
+    @DisplayName("when find a cached product after deleting it, should return some exception")
+    public void findByIdAfterDeleteWithError() {
+        Long productId = 1l;
+        var requestById = RequestById.newBuilder()
+                .setId(productId)
+                .build();
+        var cachedResponse = this.productServiceGrpcStub.findById(requestById);
+        assertThat(this.productServiceGrpcStub.findById(requestById)).isEqualTo(cachedResponse);
+
+        this.productServiceGrpcStub.delete(requestById);
+
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.productServiceGrpcStub.findById(requestById))
+                .withMessage(String.format(ERROR_MESSAGE_NOT_FOUND, productId));
+    }
+
     @Test
     @DisplayName("when delete product by id, should return success")
     public void deleteByIdWithSuccess() {
@@ -129,6 +226,18 @@ public class ProductResourceTest {
 
     }
 
+    @Test
+    @DisplayName("when delete a batch of ids, report which were deleted and which were not found")
+    public void deleteBatch() {
+        var response = this.productServiceGrpcStub.deleteBatch(DeleteBatchRequest.newBuilder()
+                .addAllIds(List.of(2l, 100l, 1l, 2l))
+                .build());
+
+        assertThat(response.getDeletedIdsList()).containsExactly(2l, 1l);
+        assertThat(response.getNotFoundIdsList()).containsExactly(100l);
+        assertThat(this.productServiceGrpcStub.findAll(EmptyRequest.newBuilder().build()).getProductsList()).isEmpty();
+    }
+
     @Test
     @DisplayName("when findAll product, should return success")
     public void findAllWithSuccess() {
@@ -143,6 +252,330 @@ public class ProductResourceTest {
                 );
     }
 
+    @Test
+    @DisplayName("when findAll product with a deadline, should run the query within it")
+    public void findAllWithDeadline() {
+        var products = this.productServiceGrpcStub
+                .withDeadlineAfter(10, TimeUnit.SECONDS)
+                .findAll(EmptyRequest.newBuilder().build());
+        assertThat(products.getProductsList()).extracting("id").containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("when streamAll product, should return every product in bounded chunks")
+    public void streamAllWithSuccess() {
+        var request = StreamAllRequest.newBuilder()
+                .setChunkSize(1)
+                .build();
+
+        var chunks = new ArrayList<ProductResponseList>();
+        this.productServiceGrpcStub.streamAll(request).forEachRemaining(chunks::add);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks)
+                .flatExtracting(ProductResponseList::getProductsList)
+                .extracting("id", "name", "price", "quantityInStock")
+                .containsExactly(
+                        tuple(1L, "CELULAR", 1000.99, 10),
+                        tuple(2L, "Televisão LG", 2500.99, 10)
+                );
+    }
+
+    @Test
+    @DisplayName("when findPage product, should follow the next page token until the last page")
+    public void findPageWithSuccess() {
+        var firstPage = this.productServiceGrpcStub.findPage(PageRequest.newBuilder()
+                .setPageSize(1)
+                .build());
+        assertThat(firstPage.getProductsList()).extracting("id").containsExactly(1L);
+        assertThat(firstPage.getNextPageToken()).isNotEmpty();
+
+        var secondPage = this.productServiceGrpcStub.findPage(PageRequest.newBuilder()
+                .setPageToken(firstPage.getNextPageToken())
+                .setPageSize(1)
+                .build());
+        assertThat(secondPage.getProductsList()).extracting("id").containsExactly(2L);
+
+        var lastPage = this.productServiceGrpcStub.findPage(PageRequest.newBuilder()
+                .setPageToken(secondPage.getNextPageToken())
+                .setPageSize(1)
+                .build());
+        assertThat(lastPage.getProductsList()).isEmpty();
+        assertThat(lastPage.getNextPageToken()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("when findPage product with an invalid page token, should return some exception")
+    public void findPageWithInvalidToken() {
+        var pageToken = "invalid";
+        var request = PageRequest.newBuilder()
+                .setPageToken(pageToken)
+                .build();
+
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.productServiceGrpcStub.findPage(request))
+                .withMessage(String.format(ERROR_MESSAGE_INVALID_PAGE_TOKEN, pageToken));
+    }
+
+    @Test
+    @DisplayName("when createBatch products, should create the new ones and report the duplicated ones")
+    public void createBatchWithSuccess() throws Exception {
+        var response = new CompletableFuture<CreateBatchResponse>();
+        var requestObserver = this.productServiceAsyncStub.createBatch(this.completeWith(response));
+        requestObserver.onNext(this.createComponent("Notebook", 3500.0, 5));
+        requestObserver.onNext(this.createComponent("Televisão LG", 2500.99, 1));
+        requestObserver.onNext(this.createComponent("NOTEBOOK", 3500.0, 5));
+        requestObserver.onCompleted();
+
+        var result = response.get(10, TimeUnit.SECONDS);
+        assertThat(result.getCreatedCount()).isEqualTo(1);
+        assertThat(result.getFailuresList())
+                .extracting(CreateResult::getIndex, failure -> failure.getError().getCode())
+                .containsExactly(
+                        tuple(1L, Status.Code.ALREADY_EXISTS.value()),
+                        tuple(2L, Status.Code.ALREADY_EXISTS.value())
+                );
+    }
+
+    @Test
+    @DisplayName("when createStream products, should return one result per product in request order")
+    public void createStreamWithSuccess() throws Exception {
+        var results = new CopyOnWriteArrayList<CreateResult>();
+        var completed = new CompletableFuture<Void>();
+        var requestObserver = this.productServiceAsyncStub.createStream(new StreamObserver<>() {
+            @Override
+            public void onNext(CreateResult value) {
+                results.add(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completed.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.complete(null);
+            }
+        });
+        requestObserver.onNext(this.createComponent("Notebook", 3500.0, 5));
+        requestObserver.onNext(this.createComponent("CELULAR", 1000.99, 1));
+        requestObserver.onCompleted();
+
+        completed.get(10, TimeUnit.SECONDS);
+        assertThat(results).extracting(CreateResult::getIndex).containsExactly(0L, 1L);
+        assertThat(results.get(0).getProduct().getId()).isGreaterThan(0);
+        assertThat(results.get(0).getProduct().getName()).isEqualTo("Notebook");
+        assertThat(results.get(1).getError().getCode()).isEqualTo(Status.Code.ALREADY_EXISTS.value());
+    }
+
+    @Test
+    @DisplayName("when searching by name prefix sorted by price, should stream matches in chunks")
+    public void searchByNamePrefixWithSuccess() {
+        this.productServiceGrpcStub.create(this.createComponent("Notebook Dell", 3500.0, 5));
+        this.productServiceGrpcStub.create(this.createComponent("Notebook Lenovo", 2800.0, 2));
+        this.productServiceGrpcStub.create(this.createComponent("Mouse", 50.0, 100));
+
+        var chunks = new ArrayList<ProductResponseList>();
+        this.productServiceGrpcStub.search(SearchRequest.newBuilder()
+                        .setNamePrefix("NOTE")
+                        .setSort(SearchRequest.Sort.PRICE)
+                        .setChunkSize(1)
+                        .build())
+                .forEachRemaining(chunks::add);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks).flatExtracting(ProductResponseList::getProductsList)
+                .extracting(ProductResponse::getName)
+                .containsExactly("Notebook Lenovo", "Notebook Dell");
+    }
+
+    @Test
+    @DisplayName("when searching by price range and low stock, should apply sort and limit")
+    public void searchByPriceAndStockWithSuccess() {
+        this.productServiceGrpcStub.create(this.createComponent("Notebook Dell", 3500.0, 5));
+        this.productServiceGrpcStub.create(this.createComponent("Notebook Lenovo", 2800.0, 2));
+        this.productServiceGrpcStub.create(this.createComponent("Mouse", 50.0, 100));
+
+        var products = new ArrayList<ProductResponse>();
+        this.productServiceGrpcStub.search(SearchRequest.newBuilder()
+                        .setMaxPrice(DoubleValue.of(3000.0))
+                        .setMaxQuantityInStock(Int32Value.of(10))
+                        .setSort(SearchRequest.Sort.NAME)
+                        .setDescending(true)
+                        .setLimit(2)
+                        .build())
+                .forEachRemaining(chunk -> products.addAll(chunk.getProductsList()));
+
+        assertThat(products).extracting(ProductResponse::getName)
+                .containsExactly("Televisão LG", "Notebook Lenovo");
+    }
+
+    @Test
+    @DisplayName("when adjusting stock, should apply the delta only while the stock stays non-negative")
+    public void adjustStockWithSuccess() {
+        var stockLevel = this.productServiceGrpcStub.adjustStock(AdjustStockRequest.newBuilder()
+                .setId(1l)
+                .setDelta(-3)
+                .build());
+        assertThat(stockLevel.getQuantityInStock()).isEqualTo(7);
+        assertThat(stockLevel.getDeferred()).isFalse();
+
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.productServiceGrpcStub.adjustStock(AdjustStockRequest.newBuilder()
+                        .setId(1l)
+                        .setDelta(-8)
+                        .build()))
+                .withMessage("FAILED_PRECONDITION: Estoque insuficiente para o produto com ID 1.");
+        assertThat(this.productServiceGrpcStub.findById(RequestById.newBuilder().setId(1l).build())
+                .getQuantityInStock()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("when adjusting stock concurrently, no decrement is lost and stock never goes negative")
+    public void adjustStockConcurrently() throws Exception {
+        var request = AdjustStockRequest.newBuilder().setId(2l).setDelta(-1).build();
+        var calls = new ArrayList<CompletableFuture<StockLevel>>();
+        for (int i = 0; i < 20; i++) {
+            var call = new CompletableFuture<StockLevel>();
+            this.productServiceAsyncStub.adjustStock(request, this.completeWith(call));
+            calls.add(call);
+        }
+
+        var succeeded = 0;
+        for (var call : calls) {
+            try {
+                call.get(10, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertThat(Status.fromThrowable(e.getCause()).getCode()).isEqualTo(Status.Code.FAILED_PRECONDITION);
+            }
+        }
+        assertThat(succeeded).isEqualTo(10);
+        assertThat(this.productServiceGrpcStub.findById(RequestById.newBuilder().setId(2l).build())
+                .getQuantityInStock()).isZero();
+    }
+
+    @Test
+    @DisplayName("when adjusting stock in batch, should report one result per adjustment in request order")
+    public void adjustStockBatchWithSuccess() {
+        var response = this.productServiceGrpcStub.adjustStockBatch(AdjustStockBatchRequest.newBuilder()
+                .addAdjustments(AdjustStockRequest.newBuilder().setId(1l).setDelta(5))
+                .addAdjustments(AdjustStockRequest.newBuilder().setId(100l).setDelta(1))
+                .addAdjustments(AdjustStockRequest.newBuilder().setId(2l).setDelta(-50))
+                .build());
+
+        assertThat(response.getResultsList())
+                .extracting(AdjustStockResult::getIndex, AdjustStockResult::hasStock)
+                .containsExactly(tuple(0l, true), tuple(1l, false), tuple(2l, false));
+        assertThat(response.getResults(0).getStock().getQuantityInStock()).isEqualTo(15);
+        assertThat(response.getResults(1).getError().getCode()).isEqualTo(Status.Code.NOT_FOUND.value());
+        assertThat(response.getResults(2).getError().getCode()).isEqualTo(Status.Code.FAILED_PRECONDITION.value());
+    }
+
+    @Test
+    @DisplayName("when updating with the current version, should write only the masked fields and bump the version")
+    public void updateWithSuccess() {
+        var findById = RequestById.newBuilder().setId(1l).build();
+        var product = this.productServiceGrpcStub.findById(findById);
+        var request = UpdateProductRequest.newBuilder()
+                .setId(1l)
+                .setProduct(ProductRequest.newBuilder().setName("ignored").setPrice(899.9))
+                .setUpdateMask(FieldMask.newBuilder().addPaths("price"))
+                .setExpectedVersion(Int64Value.of(product.getVersion()))
+                .build();
+
+        var updated = this.productServiceGrpcStub.update(request);
+
+        assertThat(updated.getName()).isEqualTo("CELULAR");
+        assertThat(updated.getPrice()).isEqualTo(899.9);
+        assertThat(updated.getVersion()).isEqualTo(product.getVersion() + 1);
+        assertThat(this.productServiceGrpcStub.findById(findById)).isEqualTo(updated);
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.productServiceGrpcStub.update(request))
+                .withMessage("ABORTED: Produto com ID 1 foi alterado: versão esperada 0, versão atual 1.");
+    }
+
+    @Test
+    @DisplayName("when updating with an invalid mask, a taken name or a missing id, should return some exception")
+    public void updateWithError() {
+        var request = UpdateProductRequest.newBuilder()
+                .setId(1l)
+                .setProduct(ProductRequest.newBuilder().setName("Televisão LG").setQuantityInStock(5))
+                .setUpdateMask(FieldMask.newBuilder().addPaths("name"))
+                .build();
+
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.productServiceGrpcStub.update(request))
+                .withMessage(ERROR_MESSAGE);
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.productServiceGrpcStub.update(request.toBuilder()
+                        .setUpdateMask(FieldMask.newBuilder().addPaths("quantity_in_stock"))
+                        .build()))
+                .withMessage("INVALID_ARGUMENT: Campo quantity_in_stock não pode ser atualizado; campos permitidos: name, price.");
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.productServiceGrpcStub.update(request.toBuilder().setId(100l).build()))
+                .withMessage(String.format(ERROR_MESSAGE_NOT_FOUND, 100));
+    }
+
+    @Test
+    @DisplayName("when watching products, should send the snapshot then committed changes, resumable by revision")
+    public void watchProductsWithSuccess() {
+        var context = Context.current().withCancellation();
+        try {
+            context.run(() -> {
+                var events = this.productServiceGrpcStub.withDeadlineAfter(10, TimeUnit.SECONDS)
+                        .watchProducts(WatchProductsRequest.getDefaultInstance());
+                var snapshot = List.of(events.next(), events.next(), events.next());
+                assertThat(snapshot)
+                        .extracting(ProductEvent::getType, ProductEvent::getId)
+                        .containsExactly(
+                                tuple(ProductEvent.Type.SNAPSHOT, 1l),
+                                tuple(ProductEvent.Type.SNAPSHOT, 2l),
+                                tuple(ProductEvent.Type.SNAPSHOT_COMPLETE, 0l));
+                var snapshotRevision = snapshot.get(2).getRevision();
+
+                var created = this.productServiceGrpcStub.create(this.createComponent("Notebook", 3500.0, 5));
+                this.productServiceGrpcStub.delete(RequestById.newBuilder().setId(1l).build());
+
+                var createdEvent = events.next();
+                assertThat(createdEvent.getType()).isEqualTo(ProductEvent.Type.CREATED);
+                assertThat(createdEvent.getRevision()).isEqualTo(snapshotRevision + 1);
+                assertThat(createdEvent.getProduct()).isEqualTo(created);
+                var deletedEvent = events.next();
+                assertThat(deletedEvent)
+                        .extracting(ProductEvent::getType, ProductEvent::getId, ProductEvent::getRevision)
+                        .containsExactly(ProductEvent.Type.DELETED, 1l, snapshotRevision + 2);
+
+                var resumed = this.productServiceGrpcStub.withDeadlineAfter(10, TimeUnit.SECONDS)
+                        .watchProducts(WatchProductsRequest.newBuilder()
+                                .setResumeRevision(createdEvent.getRevision())
+                                .build());
+                assertThat(resumed.next()).isEqualTo(deletedEvent);
+            });
+        } finally {
+            context.cancel(null);
+        }
+    }
+
+    private <T> StreamObserver<T> completeWith(CompletableFuture<T> future) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                future.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                future.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+
     private ProductRequest createComponent(String name, double price, Integer quantidade) {
         return ProductRequest.newBuilder()
                 .setName(name)
@@ -152,4 +585,65 @@ public class ProductResourceTest {
 
     }
 
+
+    @Test
+    @DisplayName("when a create is retried with the same idempotency key, the original response is returned")
+    public void createWithIdempotencyKeyReplaysOriginalResponse() {
+        var productRequest = ProductRequest.newBuilder()
+                .setName("Notebook Dell")
+                .setPrice(4500.0)
+                .setQuantityInStock(3)
+                .build();
+        var stub = this.withIdempotencyKey("create-notebook-1");
+
+        var first = stub.create(productRequest);
+        var retried = stub.create(productRequest);
+
+        assertThat(retried).isEqualTo(first);
+        assertThat(this.productServiceGrpcStub.findAll(EmptyRequest.newBuilder().build()).getProductsList())
+                .filteredOn(product -> product.getName().equals("Notebook Dell"))
+                .hasSize(1);
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.withIdempotencyKey("create-notebook-2").create(productRequest))
+                .withMessage("ALREADY_EXISTS: Produto Notebook Dell já cadastrado no Sistema.");
+    }
+
+    @Test
+    @DisplayName("when an idempotency key is reused for a different create, return invalid argument")
+    public void createWithReusedIdempotencyKey() {
+        var stub = this.withIdempotencyKey("create-mouse");
+        stub.create(ProductRequest.newBuilder().setName("Mouse").setPrice(50.0).setQuantityInStock(1).build());
+
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> stub.create(ProductRequest.newBuilder().setName("Teclado").setPrice(80.0).build()))
+                .withMessage("INVALID_ARGUMENT: Chave de idempotência create-mouse já utilizada com outra requisição.");
+    }
+
+    @Test
+    @DisplayName("when a create prefers a minimal return, only the assigned id and version are sent back")
+    public void createWithMinimalReturn() {
+        var headers = new Metadata();
+        headers.put(ReturnPreferenceInterceptor.PREFER_HEADER, "return=minimal");
+        var stub = this.productServiceGrpcStub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+
+        var productResponse = stub.create(ProductRequest.newBuilder()
+                .setName("Monitor LG")
+                .setPrice(900.0)
+                .setQuantityInStock(4)
+                .build());
+
+        assertThat(productResponse.getId()).isPositive();
+        assertThat(productResponse).isEqualTo(ProductResponse.newBuilder()
+                .setId(productResponse.getId())
+                .setVersion(productResponse.getVersion())
+                .build());
+        assertThat(this.productServiceGrpcStub.findById(RequestById.newBuilder().setId(productResponse.getId()).build())
+                .getName()).isEqualTo("Monitor LG");
+    }
+
+    private ProductServiceGrpc.ProductServiceBlockingStub withIdempotencyKey(String idempotencyKey) {
+        var headers = new Metadata();
+        headers.put(IdempotencyKeyInterceptor.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        return this.productServiceGrpcStub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
 }
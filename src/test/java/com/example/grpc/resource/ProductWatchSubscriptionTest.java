@@ -0,0 +1,110 @@
+package com.example.grpc.resource;
+
+import com.example.grpc.ProductEvent;
+import com.example.grpc.ProductResponse;
+import com.example.grpc.config.ProductProperties;
+import com.example.grpc.service.ProductAsyncService;
+import com.example.grpc.service.event.ProductChangedEvent;
+import com.example.grpc.watch.ProductEventLog;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class ProductWatchSubscriptionTest {
+
+    private final ProductEventLog productEventLog = new ProductEventLog(new ProductProperties());
+
+    private final ExecutorService watchExecutor = Executors.newSingleThreadExecutor();
+
+    private final ExecutorService committer = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        this.watchExecutor.shutdownNow();
+        this.committer.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("when a watcher cancels while a change is committed, neither side deadlocks")
+    @SuppressWarnings("unchecked")
+    public void cancelWhileCommitting() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < 500; i++) {
+                var responseObserver = (ServerCallStreamObserver<ProductEvent>) Mockito.mock(ServerCallStreamObserver.class);
+                Mockito.when(responseObserver.isReady()).thenReturn(true);
+                var cancelHandler = ArgumentCaptor.forClass(Runnable.class);
+                new ProductWatchSubscription(responseObserver, Mockito.mock(ProductAsyncService.class),
+                        this.productEventLog, this.watchExecutor, 1024, 100)
+                        .start(this.productEventLog.currentRevision());
+                Mockito.verify(responseObserver).setOnCancelHandler(cancelHandler.capture());
+
+                var barrier = new CyclicBarrier(2);
+                long id = i;
+                var commit = CompletableFuture.runAsync(() -> {
+                    await(barrier);
+                    this.productEventLog.onProductChanged(ProductChangedEvent.deleted(id));
+                }, this.committer);
+                await(barrier);
+                cancelHandler.getValue().run();
+                commit.get(10, TimeUnit.SECONDS);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("when changes made during the snapshot overflow the buffer, the watcher resumes from the snapshot revision")
+    @SuppressWarnings("unchecked")
+    public void laggingAfterSnapshotResumesFromSnapshotRevision() {
+        var responseObserver = (ServerCallStreamObserver<ProductEvent>) Mockito.mock(ServerCallStreamObserver.class);
+        Mockito.when(responseObserver.isReady()).thenReturn(true);
+        var productAsyncService = Mockito.mock(ProductAsyncService.class);
+        var firstPage = new CompletableFuture<List<ProductResponse>>();
+        Mockito.when(productAsyncService.findPage(0L, 100)).thenReturn(firstPage);
+        var snapshotRevision = this.productEventLog.currentRevision();
+
+        new ProductWatchSubscription(responseObserver, productAsyncService, this.productEventLog, this.watchExecutor,
+                1, 100)
+                .start(0);
+        Mockito.verify(productAsyncService, Mockito.timeout(5_000)).findPage(0L, 100);
+        for (long id = 1; id <= 3; id++) {
+            this.productEventLog.onProductChanged(ProductChangedEvent.deleted(id));
+        }
+        firstPage.complete(List.of(ProductResponse.newBuilder().setId(7l).build()));
+
+        var error = ArgumentCaptor.forClass(Throwable.class);
+        Mockito.verify(responseObserver, Mockito.timeout(5_000)).onError(error.capture());
+        var sent = ArgumentCaptor.forClass(ProductEvent.class);
+        Mockito.verify(responseObserver, Mockito.times(2)).onNext(sent.capture());
+        assertThat(sent.getAllValues())
+                .extracting(ProductEvent::getType, ProductEvent::getRevision)
+                .containsExactly(
+                        tuple(ProductEvent.Type.SNAPSHOT, snapshotRevision),
+                        tuple(ProductEvent.Type.SNAPSHOT_COMPLETE, snapshotRevision));
+        assertThat(Status.fromThrowable(error.getValue()).getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        assertThat(error.getValue()).hasMessageEndingWith("retome a partir da revisão " + snapshotRevision + ".");
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
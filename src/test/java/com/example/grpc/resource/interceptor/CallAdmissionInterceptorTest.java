@@ -0,0 +1,110 @@
+package com.example.grpc.resource.interceptor;
+
+import com.example.grpc.HelloReq;
+import com.example.grpc.HelloRes;
+import com.example.grpc.HelloServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CallAdmissionInterceptorTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    public void init() throws Exception {
+        var name = InProcessServerBuilder.generateName();
+        var service = new HelloServiceGrpc.HelloServiceImplBase() {
+            @Override
+            public void hello(HelloReq request, StreamObserver<HelloRes> responseObserver) {
+                if (request.getMessage().equals("block")) {
+                    started.countDown();
+                    awaitRelease();
+                }
+                responseObserver.onNext(HelloRes.newBuilder().setMessage(request.getMessage()).build());
+                responseObserver.onCompleted();
+            }
+        };
+        this.server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service, new CallAdmissionInterceptor(1)))
+                .build()
+                .start();
+        this.channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.release.countDown();
+        this.channel.shutdownNow();
+        this.server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("when calls run one after the other, every call is admitted")
+    public void sequentialCallsAreAdmitted() {
+        var stub = HelloServiceGrpc.newBlockingStub(this.channel);
+        for (int i = 0; i < 5; i++) {
+            assertThat(stub.hello(HelloReq.newBuilder().setMessage("ok").build()).getMessage()).isEqualTo("ok");
+        }
+    }
+
+    @Test
+    @DisplayName("when the limit is reached, new calls are rejected with RESOURCE_EXHAUSTED")
+    public void callsOverTheLimitAreRejected() throws Exception {
+        var blockedCallCompleted = new CountDownLatch(1);
+        HelloServiceGrpc.newStub(this.channel).hello(HelloReq.newBuilder().setMessage("block").build(), new StreamObserver<>() {
+            @Override
+            public void onNext(HelloRes value) {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+
+            @Override
+            public void onCompleted() {
+                blockedCallCompleted.countDown();
+            }
+        });
+        assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var stub = HelloServiceGrpc.newBlockingStub(this.channel);
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> stub.hello(HelloReq.newBuilder().setMessage("ok").build()))
+                .satisfies(e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+
+        this.release.countDown();
+        assertThat(blockedCallCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stub.hello(HelloReq.newBuilder().setMessage("ok").build())
+                .getMessage()).isEqualTo("ok");
+    }
+
+    private void awaitRelease() {
+        try {
+            this.release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.grpc.resource.interceptor;
+
+import com.example.grpc.HelloReq;
+import com.example.grpc.HelloRes;
+import com.example.grpc.HelloServiceGrpc;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.CompressorRegistry;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class OutboundMessageInterceptorTest {
+
+    private static final Metadata.Key<String> GRPC_ENCODING = Metadata.Key.of("grpc-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final AtomicReference<Metadata> responseHeaders = new AtomicReference<>();
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    @AfterEach
+    public void tearDown() {
+        if (this.server != null) {
+            this.channel.shutdownNow();
+            this.server.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("when a method uses gzip, responses are sent gzip encoded")
+    public void gzipResponse() throws Exception {
+        var stub = this.start(new OutboundMessageInterceptor("gzip", Map.of(), 16, 1024, CompressorRegistry.getDefaultInstance()));
+
+        var response = stub.hello(HelloReq.newBuilder().setMessage("x".repeat(100)).build());
+
+        assertThat(response.getMessage()).isEqualTo("x".repeat(100));
+        assertThat(this.responseHeaders.get().get(GRPC_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    @DisplayName("when a method is overridden with identity, responses are not compressed")
+    public void identityOverride() throws Exception {
+        var stub = this.start(new OutboundMessageInterceptor("gzip", Map.of("Hello", "identity"), 16, 1024,
+                CompressorRegistry.getDefaultInstance()));
+
+        stub.hello(HelloReq.newBuilder().setMessage("x".repeat(100)).build());
+
+        assertThat(this.responseHeaders.get().get(GRPC_ENCODING)).isNotEqualTo("gzip");
+    }
+
+    @Test
+    @DisplayName("when a response exceeds the outbound limit, the call fails with RESOURCE_EXHAUSTED")
+    public void oversizedResponse() throws Exception {
+        var stub = this.start(new OutboundMessageInterceptor("gzip", Map.of(), 16, 64, CompressorRegistry.getDefaultInstance()));
+
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> stub.hello(HelloReq.newBuilder().setMessage("x".repeat(100)).build()))
+                .satisfies(e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+    }
+
+    @Test
+    @DisplayName("when the codec is not registered, the interceptor cannot be created")
+    public void unknownCodec() {
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> new OutboundMessageInterceptor("brotli", Map.of(), 16, 64, CompressorRegistry.getDefaultInstance()));
+    }
+
+    private HelloServiceGrpc.HelloServiceBlockingStub start(OutboundMessageInterceptor interceptor) throws Exception {
+        var service = new HelloServiceGrpc.HelloServiceImplBase() {
+            @Override
+            public void hello(HelloReq request, StreamObserver<HelloRes> responseObserver) {
+                responseObserver.onNext(HelloRes.newBuilder().setMessage(request.getMessage()).build());
+                responseObserver.onCompleted();
+            }
+        };
+        this.server = NettyServerBuilder.forPort(0)
+                .addService(ServerInterceptors.intercept(service, interceptor))
+                .build()
+                .start();
+        this.channel = ManagedChannelBuilder.forAddress("localhost", this.server.getPort())
+                .usePlaintext()
+                .build();
+        return HelloServiceGrpc.newBlockingStub(ClientInterceptors.intercept(this.channel, new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                                       CallOptions callOptions, Channel next) {
+                return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+                    @Override
+                    public void start(Listener<RespT> responseListener, Metadata headers) {
+                        super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                            @Override
+                            public void onHeaders(Metadata headers) {
+                                responseHeaders.set(headers);
+                                super.onHeaders(headers);
+                            }
+                        }, headers);
+                    }
+                };
+            }
+        }));
+    }
+}
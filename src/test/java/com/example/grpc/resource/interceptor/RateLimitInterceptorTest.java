@@ -0,0 +1,204 @@
+package com.example.grpc.resource.interceptor;
+
+import com.example.grpc.HelloReq;
+import com.example.grpc.HelloRes;
+import com.example.grpc.HelloServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.health.v1.HealthCheckRequest;
+import io.grpc.health.v1.HealthCheckResponse;
+import io.grpc.health.v1.HealthGrpc;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class RateLimitInterceptorTest {
+
+    private static final Metadata.Key<String> CLIENT_ID = Metadata.Key.of("x-client-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final Metadata.Key<String> WARMUP = Metadata.Key.of("x-warmup", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    @AfterEach
+    public void tearDown() {
+        this.release.countDown();
+        if (this.channel != null) {
+            this.channel.shutdownNow();
+            this.server.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("when a client exceeds its burst, further calls are rejected with a retry pushback")
+    public void callsOverTheRateAreRejectedPerClient() throws Exception {
+        this.start(new RateLimitInterceptor("x-client-id", new RateLimitInterceptor.Limit(0, 1),
+                Map.of("Hello", new RateLimitInterceptor.Limit(0.01, 2)), 100, Duration.ofMinutes(1), null, WARMUP));
+        var batchJob = this.stubFor("batch-job");
+
+        batchJob.hello(HelloReq.newBuilder().setMessage("1").build());
+        batchJob.hello(HelloReq.newBuilder().setMessage("2").build());
+
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> batchJob.hello(HelloReq.newBuilder().setMessage("3").build()))
+                .satisfies(e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+                    assertThat(Long.parseLong(e.getTrailers().get(RateLimitInterceptor.RETRY_PUSHBACK_TRAILER)))
+                            .isGreaterThan(0);
+                });
+        assertThat(this.stubFor("checkout").hello(HelloReq.newBuilder().setMessage("ok").build()).getMessage())
+                .isEqualTo("ok");
+        var warmupHeaders = new Metadata();
+        warmupHeaders.put(WARMUP, "true");
+        assertThat(batchJob.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(warmupHeaders))
+                .hello(HelloReq.newBuilder().setMessage("warm-up").build())
+                .getMessage()).isEqualTo("warm-up");
+    }
+
+    @Test
+    @DisplayName("when the adaptive concurrency limit is reached, unary calls are shed but health checks still pass")
+    public void callsOverTheConcurrencyLimitAreShed() throws Exception {
+        this.start(new RateLimitInterceptor("x-client-id", new RateLimitInterceptor.Limit(0, 1), Map.of(), 100,
+                Duration.ofMinutes(1), new RateLimitInterceptor.AdaptiveConcurrency(1, 1, 1, Duration.ofSeconds(1),
+                0.9, Duration.ofMillis(100), Set.of(HelloServiceGrpc.SERVICE_NAME)), WARMUP));
+        HelloServiceGrpc.newStub(this.channel).hello(HelloReq.newBuilder().setMessage("block").build(), new StreamObserver<>() {
+            @Override
+            public void onNext(HelloRes value) {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatExceptionOfType(StatusRuntimeException.class)
+                .isThrownBy(() -> this.stubFor("checkout").hello(HelloReq.newBuilder().setMessage("ok").build()))
+                .satisfies(e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+                    assertThat(e.getTrailers().get(RateLimitInterceptor.RETRY_PUSHBACK_TRAILER)).isEqualTo("100");
+                });
+        assertThat(HealthGrpc.newBlockingStub(this.channel).check(HealthCheckRequest.getDefaultInstance()).getStatus())
+                .isEqualTo(HealthCheckResponse.ServingStatus.SERVING);
+    }
+
+    @Test
+    @DisplayName("token bucket allows the burst, then one permit per emission interval")
+    public void tokenBucketRefillsAtTheConfiguredRate() {
+        var bucket = new TokenBucket(10, 2);
+        var now = 1_000_000_000L;
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isEqualTo(100_000_000L);
+        assertThat(bucket.tryAcquire(now + 100_000_000L)).isZero();
+        assertThat(bucket.tryAcquire(now + 100_000_000L)).isPositive();
+    }
+
+    @Test
+    @DisplayName("adaptive limit grows while calls are fast and backs off when they are slow")
+    public void adaptiveLimitFollowsLatency() {
+        var limit = new AdaptiveConcurrencyLimit(4, 2, 8, TimeUnit.MILLISECONDS.toNanos(100), 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire();
+        }
+        assertThat(limit.tryAcquire()).isEqualTo(-1);
+        limit.release(4, limit.window(), TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertThat(limit.limit()).isEqualTo(5);
+
+        limit.release(4, limit.window(), TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertThat(limit.limit()).isEqualTo(2);
+        limit.release(4, limit.window(), 0, true);
+        assertThat(limit.limit()).isEqualTo(2);
+        assertThat(limit.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("adaptive limit backs off once per window of admitted calls and ignores cancelled calls")
+    public void adaptiveLimitBacksOffOncePerWindow() {
+        var limit = new AdaptiveConcurrencyLimit(100, 1, 100, TimeUnit.MILLISECONDS.toNanos(100), 0.5);
+        var slowNanos = TimeUnit.MILLISECONDS.toNanos(500);
+
+        var firstWindow = limit.window();
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire();
+        }
+        limit.release();
+        assertThat(limit.limit()).isEqualTo(100);
+        for (int i = 0; i < 3; i++) {
+            limit.release(4, firstWindow, slowNanos, i == 0);
+        }
+        assertThat(limit.limit()).isEqualTo(50);
+
+        var secondWindow = limit.window();
+        limit.tryAcquire();
+        limit.release(1, secondWindow, 0, true);
+        assertThat(limit.limit()).isEqualTo(25);
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    private void start(RateLimitInterceptor interceptor) throws Exception {
+        var name = InProcessServerBuilder.generateName();
+        var service = new HelloServiceGrpc.HelloServiceImplBase() {
+            @Override
+            public void hello(HelloReq request, StreamObserver<HelloRes> responseObserver) {
+                if (request.getMessage().equals("block")) {
+                    started.countDown();
+                    awaitRelease();
+                }
+                responseObserver.onNext(HelloRes.newBuilder().setMessage(request.getMessage()).build());
+                responseObserver.onCompleted();
+            }
+        };
+        this.server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service, interceptor))
+                .addService(ServerInterceptors.intercept(new HealthStatusManager().getHealthService(), interceptor))
+                .build()
+                .start();
+        this.channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    private HelloServiceGrpc.HelloServiceBlockingStub stubFor(String clientId) {
+        var headers = new Metadata();
+        headers.put(CLIENT_ID, clientId);
+        return HelloServiceGrpc.newBlockingStub(this.channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    private void awaitRelease() {
+        try {
+            this.release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.grpc.service;
+
+import com.example.grpc.ProductResponse;
+import com.example.grpc.dto.ProductCreationResultDto;
+import com.example.grpc.dto.ProductInputDto;
+import com.example.grpc.dto.ProductOutputDto;
+import com.example.grpc.service.exception.AlreadyExistisException;
+import com.example.grpc.service.exception.ConcurrentCreationException;
+import com.example.grpc.service.exception.NotFoundException;
+import com.example.grpc.service.impl.ProductAsyncServiceImpl;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@ExtendWith(SpringExtension.class)
+public class ProductAsyncServiceTest {
+
+    private ProductAsyncService productAsyncService;
+
+    private ExecutorService executor;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void init() {
+        this.executor = Executors.newSingleThreadExecutor();
+        this.productAsyncService = new ProductAsyncServiceImpl(this.productService, this.executor, this.transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("when find some product by id, the future completes with the product")
+    public void findByIdWithSuccess() throws Exception {
+        var product = new ProductOutputDto(1l, "Celular", 2000.0, 1, 0l);
+        Mockito.when(this.productService.findById(1l)).thenReturn(product);
+
+        var result = this.productAsyncService.findById(1l).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertThat(result).isEqualTo(product);
+    }
+
+    @Test
+    @DisplayName("when the service throws, the future completes with the same exception")
+    public void findByIdWithException() {
+        Mockito.when(this.productService.findById(1l)).thenThrow(new NotFoundException(1l));
+
+        Assertions.assertThatThrownBy(() -> this.productAsyncService.findById(1l).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("when createAll loses a race to a concurrent create, it runs again and reports the name as taken")
+    public void createAllRetriesConcurrentCreation() throws Exception {
+        var productInputDtos = List.of(ProductInputDto.builder().name("Celular").price(2000.0).quantityInStock(1).build());
+        var alreadyExists = ProductCreationResultDto.failed(new AlreadyExistisException("Celular"));
+        Mockito.when(this.productService.createAll(productInputDtos))
+                .thenThrow(new ConcurrentCreationException(new IllegalStateException()))
+                .thenReturn(List.of(alreadyExists));
+
+        var result = this.productAsyncService.createAll(productInputDtos).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertThat(result).containsExactly(alreadyExists);
+        Mockito.verify(this.productService, Mockito.times(2)).createAll(productInputDtos);
+    }
+
+    @Test
+    @DisplayName("when the gRPC context is cancelled before the query runs, the query is skipped")
+    public void cancelledContextSkipsQuery() throws Exception {
+        var blocker = new CountDownLatch(1);
+        this.executor.execute(() -> {
+            try {
+                blocker.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        var context = Context.current().withCancellation();
+        var future = context.call(() -> this.productAsyncService.findById(1l));
+        context.cancel(null);
+        blocker.countDown();
+
+        Assertions.assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .getCause()
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> Assertions.assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.CANCELLED));
+        this.executor.submit(() -> null).get(5, TimeUnit.SECONDS);
+        Mockito.verify(this.productService, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("when the query queue is full, further calls fail with RESOURCE_EXHAUSTED")
+    public void fullQueueRejectsCalls() throws Exception {
+        var executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(1));
+        var productAsyncService = new ProductAsyncServiceImpl(this.productService, executor, this.transactionManager);
+        var blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocker.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        var queued = productAsyncService.findById(1l);
+
+        var rejected = productAsyncService.findById(2l);
+        blocker.countDown();
+
+        Assertions.assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .getCause()
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> Assertions.assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+        queued.get(5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("when the call has a deadline, the query runs in a transaction timing out with it")
+    public void deadlineBecomesTransactionTimeout() throws Exception {
+        var product = new ProductOutputDto(1l, "Celular", 2000.0, 1, 0l);
+        Mockito.when(this.productService.findById(1l)).thenReturn(product);
+        Mockito.when(this.transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+
+        var scheduler = Executors.newSingleThreadScheduledExecutor();
+        var context = Context.current().withDeadlineAfter(10, TimeUnit.SECONDS, scheduler);
+        var result = context.call(() -> this.productAsyncService.findById(1l)).get(5, TimeUnit.SECONDS);
+
+        var definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        Mockito.verify(this.transactionManager).getTransaction(definition.capture());
+        Assertions.assertThat(definition.getValue().getTimeout()).isBetween(1, 10);
+        Assertions.assertThat(result).isEqualTo(product);
+        context.cancel(null);
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("when the call is cancelled while findAll reads a chunk, no further chunk is read")
+    public void findAllStopsBetweenChunks() throws Exception {
+        var context = Context.current().withCancellation();
+        var fullChunk = LongStream.rangeClosed(1, 1000)
+                .mapToObj(id -> ProductResponse.newBuilder().setId(id).setName("Produto " + id).build())
+                .collect(Collectors.toList());
+        Mockito.when(this.productService.findResponsePage(Mockito.eq(0L), Mockito.anyInt())).thenAnswer(invocation -> {
+            context.cancel(null);
+            return fullChunk;
+        });
+
+        var future = context.call(() -> this.productAsyncService.findAll());
+
+        Assertions.assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(StatusRuntimeException.class);
+        Mockito.verify(this.productService, Mockito.times(1)).findResponsePage(Mockito.anyLong(), Mockito.anyInt());
+    }
+}
@@ -2,21 +2,39 @@ package com.example.grpc.service;
 
 import com.example.grpc.domain.Product;
 import com.example.grpc.dto.ProductInputDto;
+import com.example.grpc.dto.ProductUpdateDto;
 import com.example.grpc.repository.ProductRepository;
+import com.example.grpc.repository.ProductResponseRepository;
+import com.example.grpc.repository.ProductStockRepository;
+import com.example.grpc.repository.ProductUpdateRepository;
+import com.example.grpc.service.event.ProductChangedEvent;
 import com.example.grpc.service.exception.BaseBusinessException;
+import com.example.grpc.service.exception.ConcurrentCreationException;
 import com.example.grpc.service.exception.NotFoundException;
+import com.example.grpc.service.exception.InsufficientStockException;
+import com.example.grpc.service.exception.VersionConflictException;
 import com.example.grpc.service.impl.ProductServiceImpl;
+import com.example.grpc.service.impl.StockAdjustmentAccumulator;
+import io.grpc.Status;
 import org.assertj.core.api.Assertions;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.AssertionsForClassTypes.tuple;
@@ -30,13 +48,30 @@ public class ProductServiceTest {
     @MockBean
     private ProductRepository productRepository;
 
+    @MockBean
+    private ProductResponseRepository productResponseRepository;
+
+    @MockBean
+    private ProductStockRepository productStockRepository;
+
+    @MockBean
+    private ProductUpdateRepository productUpdateRepository;
+
+    @MockBean
+    private StockAdjustmentAccumulator stockAdjustmentAccumulator;
+
+    @MockBean
+    private ApplicationEventPublisher eventPublisher;
+
     private static final String ERROR_MESSAGE = "Produto Celular já cadastrado no Sistema.";
 
     private static final String ERROR_MESSAGE_NOT_FOUND = "Produto com ID %s não encontrado.";
 
     @BeforeEach
     public void init() {
-        this.productService = new ProductServiceImpl(this.productRepository);
+        this.productService = new ProductServiceImpl(this.productRepository, this.productResponseRepository,
+                this.productStockRepository, this.productUpdateRepository, this.stockAdjustmentAccumulator,
+                this.eventPublisher);
     }
 
     @Test
@@ -44,7 +79,7 @@ public class ProductServiceTest {
     public void createProduct() {
         var productSave = this.createProductEntity(1l, "Celular", 2000.0, 1);
         var productInputDto = this.createProductInputDto(null, "Celular", 2000.0, 1);
-        Mockito.when(this.productRepository.save(Mockito.any(Product.class))).thenReturn(productSave);
+        Mockito.when(this.productRepository.saveAndFlush(Mockito.any(Product.class))).thenReturn(productSave);
 
         var result = this.productService.create(productInputDto);
 
@@ -57,10 +92,11 @@ public class ProductServiceTest {
     @Test
     @DisplayName("Try to create product duplicate")
     public void tryToCreateDuplicateProduct() {
-        var productSave = this.createProductEntity(1l, "Celular", 2000.0, 1);
         var productInputDto = this.createProductInputDto(1l, "Celular", 2000.0, 1);
-        Mockito.when(this.productRepository.findByNameIgnoreCase(Mockito.any(String.class)))
-                .thenReturn(Optional.of(productSave));
+        var constraintViolation = new ConstraintViolationException("duplicated name",
+                new SQLException(), "PUBLIC.UX_PRODUCT_NORMALIZED_NAME_INDEX_1");
+        Mockito.when(this.productRepository.saveAndFlush(Mockito.any(Product.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicated name", constraintViolation));
 
         Throwable exception = Assertions.catchThrowable(() -> this.productService.create(productInputDto));
         Assertions.assertThat(exception)
@@ -96,14 +132,31 @@ public class ProductServiceTest {
 
     }
 
+    @Test
+    @DisplayName("when findAllById with many ids, should query distinct ids in chunks")
+    public void findAllByIdInChunks() {
+        var ids = LongStream.rangeClosed(1, 2500).boxed().collect(Collectors.toList());
+        ids.add(1l);
+        Mockito.when(this.productRepository.findAllById(Mockito.anyIterable()))
+                .thenReturn(List.of(this.createProductEntity(1l, "Celular", 2000.0, 1)));
+
+        var result = this.productService.findAllById(ids);
+
+        Assertions.assertThat(result).hasSize(3);
+        Mockito.verify(this.productRepository, Mockito.times(2)).findAllById(Mockito.argThat(chunk ->
+                ((Collection<Long>) chunk).size() == 1000));
+        Mockito.verify(this.productRepository, Mockito.times(1)).findAllById(Mockito.argThat(chunk ->
+                ((Collection<Long>) chunk).size() == 500));
+    }
+
     @Test
     @DisplayName("when delete some product by id, not should throw exception")
     public void deleteByIdWithSuccess() {
         final Long productId = 1l;
-        var productSave = this.createProductEntity(productId, "Celular", 2000.0, 1);
-        Mockito.when(this.productRepository.findById(productId)).thenReturn(Optional.of(productSave));
+        Mockito.when(this.productRepository.deleteProductById(productId)).thenReturn(1);
         assertDoesNotThrow(() -> this.productService.delete(productId));
-        Mockito.verify(this.productRepository, Mockito.times(1)).deleteById(productId);
+        Mockito.verify(this.productRepository, Mockito.never()).findById(productId);
+        Mockito.verify(this.eventPublisher, Mockito.times(1)).publishEvent(ProductChangedEvent.deleted(productId));
 
     }
 
@@ -111,11 +164,24 @@ public class ProductServiceTest {
     @DisplayName("when delete some product by id, should throw exception")
     public void deleteByIdWithError() {
         final Long productId = 1l;
-        var productSave = this.createProductEntity(productId, "Celular", 2000.0, 1);
-        Mockito.when(this.productRepository.findById(productId)).thenReturn(Optional.empty());
+        Mockito.when(this.productRepository.deleteProductById(productId)).thenReturn(0);
         assertThatExceptionOfType(NotFoundException.class)
                 .isThrownBy(() -> this.productService.delete(productId));
+        Mockito.verifyNoInteractions(this.eventPublisher);
+
+    }
 
+    @Test
+    @DisplayName("when delete a batch of products, report the ids that were deleted in request order")
+    public void deleteAllByIdReportsDeletedIds() {
+        Mockito.when(this.productRepository.lockExistingIds(List.of(3l, 1l, 2l))).thenReturn(List.of(1l, 3l));
+
+        var deletedIds = this.productService.deleteAllById(List.of(3l, 1l, 3l, 2l));
+
+        Assertions.assertThat(deletedIds).containsExactly(3l, 1l);
+        Mockito.verify(this.productRepository).deleteAllProductsById(List.of(1l, 3l));
+        Mockito.verify(this.eventPublisher).publishEvent(ProductChangedEvent.deleted(3l));
+        Mockito.verify(this.eventPublisher).publishEvent(ProductChangedEvent.deleted(1l));
     }
 
     @Test
@@ -139,6 +205,114 @@ public class ProductServiceTest {
                 );
     }
 
+    @Test
+    @DisplayName("when findPage some product, should read after the keyset cursor")
+    public void findPageWithSuccess() {
+        var products = List.of(
+                this.createProductEntity(2l, "Televisão LG", 2000.0, 1)
+        );
+        Mockito.when(this.productRepository.findByIdGreaterThanOrderByIdAsc(Mockito.eq(1l), Mockito.any(Pageable.class)))
+                .thenReturn(products);
+
+        var result = this.productService.findPage(1l, 10);
+
+        Assertions.assertThat(result)
+                .extracting("id", "name", "price", "quantityInStock")
+                .containsExactly(tuple(2l, "Televisão LG", 2000.0, 1));
+    }
+
+    @Test
+    @DisplayName("when createAll products, should check duplicates once and save the new ones together")
+    public void createAllWithSuccess() {
+        var productInputDtos = List.of(
+                this.createProductInputDto(null, "Notebook", 3500.0, 5),
+                this.createProductInputDto(null, "Celular", 2000.0, 1),
+                this.createProductInputDto(null, "NOTEBOOK", 3500.0, 5)
+        );
+        Mockito.when(this.productRepository.findExistingNames(Mockito.anyCollection()))
+                .thenReturn(List.of("celular"));
+
+        var result = this.productService.createAll(productInputDtos);
+
+        Assertions.assertThat(result).extracting("created").containsExactly(true, false, false);
+        Assertions.assertThat(result.get(0).getProduct().getName()).isEqualTo("Notebook");
+        Assertions.assertThat(result.get(1).getError()).hasMessage(ERROR_MESSAGE);
+        Mockito.verify(this.productRepository, Mockito.times(1)).findExistingNames(Mockito.anyCollection());
+        Mockito.verify(this.productRepository, Mockito.times(1)).saveAll(Mockito.argThat(products ->
+                products.iterator().hasNext()));
+    }
+
+    @Test
+    @DisplayName("when a name is created concurrently after the check, createAll fails so it can be retried")
+    public void createAllWithConcurrentDuplicate() {
+        var productInputDtos = List.of(this.createProductInputDto(null, "Notebook", 3500.0, 5));
+        var constraintViolation = new ConstraintViolationException("duplicated name",
+                new SQLException(), "PUBLIC.UX_PRODUCT_NORMALIZED_NAME_INDEX_1");
+        Mockito.doThrow(new DataIntegrityViolationException("duplicated name", constraintViolation))
+                .when(this.productRepository).flush();
+
+        assertThatExceptionOfType(ConcurrentCreationException.class)
+                .isThrownBy(() -> this.productService.createAll(productInputDtos));
+        Mockito.verify(this.eventPublisher, Mockito.never()).publishEvent(Mockito.any(Object.class));
+    }
+
+    @Test
+    @DisplayName("when adjusting stock below zero, should throw exception without changing it")
+    public void adjustStockWithInsufficientStock() {
+        Mockito.when(this.productStockRepository.adjust(1l, -5)).thenReturn(false);
+        Mockito.when(this.productStockRepository.findQuantityInStock(1l)).thenReturn(Optional.of(3));
+
+        assertThatExceptionOfType(InsufficientStockException.class)
+                .isThrownBy(() -> this.productService.adjustStock(1l, -5));
+        Mockito.verify(this.eventPublisher, Mockito.never()).publishEvent(Mockito.any(Object.class));
+    }
+
+    @Test
+    @DisplayName("when adjusting stock of a missing product, should throw not found")
+    public void adjustStockWithNotFound() {
+        Mockito.when(this.productStockRepository.adjust(1l, 1)).thenReturn(false);
+        Mockito.when(this.productStockRepository.findQuantityInStock(1l)).thenReturn(Optional.empty());
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> this.productService.adjustStock(1l, 1));
+    }
+
+    @Test
+    @DisplayName("when adjusting stock of a hot product, should coalesce it without touching the database")
+    public void adjustStockOfHotProduct() {
+        Mockito.when(this.stockAdjustmentAccumulator.accepts(1l)).thenReturn(true);
+
+        var result = this.productService.adjustStock(1l, -1);
+
+        Assertions.assertThat(result.isDeferred()).isTrue();
+        Mockito.verify(this.stockAdjustmentAccumulator).add(1l, -1);
+        Mockito.verifyNoInteractions(this.productStockRepository);
+    }
+
+    @Test
+    @DisplayName("when updating with a stale version, should report the conflict without reading the product")
+    public void updateWithStaleVersion() {
+        var productUpdateDto = ProductUpdateDto.builder().id(1l).price(10.0).expectedVersion(2l).build();
+        Mockito.when(this.productUpdateRepository.update(productUpdateDto)).thenReturn(false);
+        Mockito.when(this.productUpdateRepository.findVersion(1l)).thenReturn(Optional.of(3l));
+
+        assertThatExceptionOfType(VersionConflictException.class)
+                .isThrownBy(() -> this.productService.update(productUpdateDto))
+                .satisfies(e -> Assertions.assertThat(e.getStatusCode().getCode()).isEqualTo(Status.Code.ABORTED));
+        Mockito.verifyNoInteractions(this.productRepository, this.eventPublisher);
+    }
+
+    @Test
+    @DisplayName("when updating a missing product, should throw not found")
+    public void updateWithNotFound() {
+        var productUpdateDto = ProductUpdateDto.builder().id(1l).price(10.0).build();
+        Mockito.when(this.productUpdateRepository.update(productUpdateDto)).thenReturn(false);
+        Mockito.when(this.productUpdateRepository.findVersion(1l)).thenReturn(Optional.empty());
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> this.productService.update(productUpdateDto));
+    }
+
     private ProductInputDto createProductInputDto(Long id, String name, double price, int quantityInStock) {
         return ProductInputDto.builder()
                 .id(id)
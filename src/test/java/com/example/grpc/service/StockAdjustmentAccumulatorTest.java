@@ -0,0 +1,103 @@
+package com.example.grpc.service;
+
+import com.example.grpc.config.ProductProperties;
+import com.example.grpc.repository.ProductStockRepository;
+import com.example.grpc.service.event.ProductChangedEvent;
+import com.example.grpc.service.impl.StockAdjustmentAccumulator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StockAdjustmentAccumulatorTest {
+
+    private final ProductStockRepository productStockRepository = Mockito.mock(ProductStockRepository.class);
+
+    private final ApplicationEventPublisher eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private StockAdjustmentAccumulator stockAdjustmentAccumulator;
+
+    @BeforeEach
+    public void init() {
+        var productProperties = new ProductProperties();
+        productProperties.getStock().setHotIds(Set.of(1l, 2l));
+        productProperties.getStock().setFlushInterval(Duration.ofHours(1));
+        this.stockAdjustmentAccumulator = new StockAdjustmentAccumulator(productProperties, this.productStockRepository,
+                this.eventPublisher, Mockito.mock(PlatformTransactionManager.class), this.meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.stockAdjustmentAccumulator.shutdown();
+    }
+
+    @Test
+    @DisplayName("when many threads adjust a hot product, a flush writes their net delta once")
+    public void flushWritesNetDelta() throws Exception {
+        Mockito.when(this.productStockRepository.lockQuantityInStock(1l)).thenReturn(Optional.of(20));
+        var executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 80; i++) {
+            var delta = i % 2 == 0 ? 2 : -1;
+            executor.execute(() -> this.stockAdjustmentAccumulator.add(1l, delta));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        this.stockAdjustmentAccumulator.flush();
+        this.stockAdjustmentAccumulator.flush();
+
+        assertThat(this.stockAdjustmentAccumulator.accepts(1l)).isTrue();
+        assertThat(this.stockAdjustmentAccumulator.accepts(3l)).isFalse();
+        Mockito.verify(this.productStockRepository, Mockito.times(1)).adjust(1l, 40);
+        Mockito.verify(this.eventPublisher).publishEvent(ProductChangedEvent.stockAdjusted(1l, 60));
+    }
+
+    @Test
+    @DisplayName("when writing one product fails, the other products are flushed and its delta is kept for the next flush")
+    public void flushKeepsDeltaOnFailure() {
+        Mockito.when(this.productStockRepository.lockQuantityInStock(1l))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(Optional.of(10));
+        Mockito.when(this.productStockRepository.lockQuantityInStock(2l)).thenReturn(Optional.of(10));
+        this.stockAdjustmentAccumulator.add(1l, 3);
+        this.stockAdjustmentAccumulator.add(2l, 5);
+
+        this.stockAdjustmentAccumulator.flush();
+        this.stockAdjustmentAccumulator.flush();
+        this.stockAdjustmentAccumulator.flush();
+
+        Mockito.verify(this.productStockRepository, Mockito.times(1)).adjust(1l, 3);
+        Mockito.verify(this.productStockRepository, Mockito.times(1)).adjust(2l, 5);
+        Mockito.verify(this.eventPublisher).publishEvent(ProductChangedEvent.stockAdjusted(2l, 15));
+        Mockito.verify(this.eventPublisher).publishEvent(ProductChangedEvent.stockAdjusted(1l, 13));
+    }
+
+    @Test
+    @DisplayName("when the net decrement exceeds the stock, the stock drops to zero and the excess is counted as rejected")
+    public void flushAppliesFeasiblePartOfDecrement() {
+        Mockito.when(this.productStockRepository.lockQuantityInStock(1l)).thenReturn(Optional.of(5));
+        this.stockAdjustmentAccumulator.add(1l, -3);
+        this.stockAdjustmentAccumulator.add(1l, -4);
+
+        this.stockAdjustmentAccumulator.flush();
+
+        Mockito.verify(this.productStockRepository).adjust(1l, -5);
+        Mockito.verify(this.eventPublisher).publishEvent(ProductChangedEvent.stockAdjusted(1l, 0));
+        assertThat(this.meterRegistry.get("product.stock.rejected").counter().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.grpc.startup;
+
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.RequestById;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "grpc.server.in-process-name=fast-start",
+        "grpc.client.inProcess.address=in-process:fast-start"})
+@TestPropertySource(locations = {
+        "classpath:application-test.properties",
+        "classpath:application-fast-start.properties"})
+@DirtiesContext
+public class FastStartTest {
+
+    @GrpcClient("inProcess")
+    private ProductServiceGrpc.ProductServiceBlockingStub productServiceGrpcStub;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private StartupTimelineReporter startupTimelineReporter;
+
+    @Test
+    @DisplayName("in fast-start mode Flyway owns the schema, beans are lazy except migrations, and the first call is timed")
+    public void fastStartServesCalls() {
+        assertThat(this.beanFactory.getBeanDefinition("productResource").isLazyInit()).isTrue();
+        assertThat(this.beanFactory.getBeanDefinition("flywayInitializer").isLazyInit()).isFalse();
+        this.flyway.clean();
+        this.flyway.migrate();
+        assertThat(this.flyway.info().pending()).isEmpty();
+        assertThat(this.startupTimelineReporter.firstCallMillis()).isEqualTo(-1);
+
+        var product = this.productServiceGrpcStub.findById(RequestById.newBuilder().setId(1l).build());
+
+        assertThat(product.getName()).isEqualTo("CELULAR");
+        assertThat(this.startupTimelineReporter.firstCallMillis()).isGreaterThan(0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.grpc.startup;
+
+import com.example.grpc.ProductServiceGrpc;
+import com.example.grpc.cache.ProductResponseCache;
+import io.grpc.health.v1.HealthCheckRequest;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.health.v1.HealthGrpc;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "grpc.server.in-process-name=warmup",
+        "grpc.client.inProcess.address=in-process:warmup",
+        "spring.datasource.url=jdbc:h2:mem:warmup;DB_CLOSE_ON_EXIT=FALSE"})
+@TestPropertySource("classpath:application-test.properties")
+@DirtiesContext
+public class ProductWarmupTest {
+
+    @Autowired
+    private ProductResponseCache productResponseCache;
+
+    @Autowired
+    private StartupTimelineReporter startupTimelineReporter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("once started the service reports SERVING, with the hot products cached and no call counted")
+    public void servingAfterWarmup() {
+        assertThat(this.startupTimelineReporter.firstCallMillis()).isEqualTo(-1);
+        assertThat(this.meterRegistry.find("grpc.server.calls").timers()).isEmpty();
+        assertThat(this.productResponseCache.hottestIds(10)).contains(1L, 2L);
+
+        var channel = InProcessChannelBuilder.forName("warmup").build();
+        try {
+            var health = HealthGrpc.newBlockingStub(channel);
+
+            assertThat(health.check(HealthCheckRequest.getDefaultInstance()).getStatus())
+                    .isEqualTo(ServingStatus.SERVING);
+            assertThat(health.check(HealthCheckRequest.newBuilder()
+                    .setService(ProductServiceGrpc.SERVICE_NAME)
+                    .build()).getStatus())
+                    .isEqualTo(ServingStatus.SERVING);
+        } finally {
+            channel.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.grpc.watch;
+
+import com.example.grpc.ProductEvent;
+import com.example.grpc.config.ProductProperties;
+import com.example.grpc.dto.ProductOutputDto;
+import com.example.grpc.service.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class ProductEventLogTest {
+
+    private ProductEventLog productEventLog;
+
+    @BeforeEach
+    public void init() {
+        var productProperties = new ProductProperties();
+        productProperties.getWatch().setHistorySize(2);
+        this.productEventLog = new ProductEventLog(productProperties);
+    }
+
+    @Test
+    @DisplayName("when resuming from a retained revision, the later events are replayed")
+    public void resumeFromRetainedRevision() {
+        var start = this.productEventLog.currentRevision();
+        this.productEventLog.onProductChanged(ProductChangedEvent.created(new ProductOutputDto(1l, "Celular", 2000.0, 1, 0l)));
+        this.productEventLog.onProductChanged(ProductChangedEvent.deleted(1l));
+        var events = new ArrayList<ProductEvent>();
+
+        var subscribed = this.productEventLog.subscribe(events::add, start + 1);
+
+        assertThat(subscribed).isTrue();
+        assertThat(events).extracting(ProductEvent::getType, ProductEvent::getRevision)
+                .containsExactly(tuple(ProductEvent.Type.DELETED, start + 2));
+    }
+
+    @Test
+    @DisplayName("when resuming from a revision no longer retained, the subscriber starts from a snapshot")
+    public void resumeFromEvictedRevision() {
+        var start = this.productEventLog.currentRevision();
+        for (long id = 1; id <= 3; id++) {
+            this.productEventLog.onProductChanged(ProductChangedEvent.deleted(id));
+        }
+        var events = new ArrayList<ProductEvent>();
+
+        var subscribed = this.productEventLog.subscribe(events::add, start);
+        this.productEventLog.onProductChanged(ProductChangedEvent.deleted(4l));
+
+        assertThat(subscribed).isFalse();
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("when a change arrives after a later change of the same product, it is dropped")
+    public void staleChangeIsDropped() {
+        var start = this.productEventLog.currentRevision();
+        var earlier = ProductChangedEvent.updated(new ProductOutputDto(1l, "Celular", 2000.0, 1, 1l));
+        var later = ProductChangedEvent.updated(new ProductOutputDto(1l, "Celular", 1800.0, 1, 2l));
+        var events = new ArrayList<ProductEvent>();
+        this.productEventLog.subscribe(events::add, start);
+
+        this.productEventLog.onProductChanged(later);
+        this.productEventLog.onProductChanged(earlier);
+        this.productEventLog.onProductChanged(ProductChangedEvent.stockAdjusted(1l, 5));
+
+        assertThat(events).extracting(ProductEvent::getType, ProductEvent::getRevision)
+                .containsExactly(tuple(ProductEvent.Type.UPDATED, start + 1), tuple(ProductEvent.Type.STOCK_ADJUSTED, start + 2));
+        assertThat(events.get(0).getProduct().getVersion()).isEqualTo(2l);
+    }
+
+    @Test
+    @DisplayName("when a subscriber refuses an event, it no longer receives events")
+    public void laggingSubscriberIsDropped() {
+        var offered = new ArrayList<ProductEvent>();
+        this.productEventLog.subscribe(event -> offered.add(event) && offered.size() < 2,
+                this.productEventLog.currentRevision());
+
+        for (long id = 1; id <= 3; id++) {
+            this.productEventLog.onProductChanged(ProductChangedEvent.deleted(id));
+        }
+
+        assertThat(offered).extracting(ProductEvent::getId).containsExactly(1l, 2l);
+    }
+}